@@ -0,0 +1,64 @@
+package com.ml.testsexamples.facades;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.caches.BankAccountCache;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.repositories.BankAccountPostingRepository;
+import com.ml.testsexamples.repositories.OutboxRepository;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@State(Scope.Benchmark)
+public class DataFacadeBenchmark {
+
+    private static final Map<BankAccountFields, String> UPDATE = Map.of(
+            BankAccountFields.FIRST_NAME, "Franklin",
+            BankAccountFields.MINIMUM_BALANCE, "-1000",
+            BankAccountFields.ACTIVE, "true");
+
+    private DataFacade dataFacade;
+
+    @Setup
+    public void setUp() {
+        BankAccountSnapshot bankAccount = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Franklin", "Roosevelt",
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(-1000), true, 0, null, null, null, 1, 0);
+        NamedParameterJdbcTemplate jdbcTemplate = inMemoryJdbcTemplate(bankAccount);
+        dataFacade = new DataFacade(null, null, new BankAccountPostingRepository(jdbcTemplate), BankAccountCache.disabled(), null,
+                new OutboxRepository(jdbcTemplate, new ObjectMapper().findAndRegisterModules()));
+    }
+
+    @Benchmark
+    public Optional<BankAccountSnapshot> updateBankAccount() {
+        return dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.of(UPDATE));
+    }
+
+    // Every query answers with the given row and every update succeeds; the benchmark measures parsing the update,
+    // generating its statement and serializing its event, not persistence.
+    @SuppressWarnings("unchecked")
+    private static NamedParameterJdbcTemplate inMemoryJdbcTemplate(BankAccountSnapshot bankAccount) {
+        return new NamedParameterJdbcTemplate(new JdbcTemplate()) {
+            @Override
+            public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+                return List.of((T) bankAccount);
+            }
+
+            @Override
+            public int update(String sql, SqlParameterSource paramSource) {
+                return 1;
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.TestsExamplesApplication;
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.enums.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Inserts against the PostgreSQL of docker-compose.yml, which must be running. Each operation is one row, so the
+// throughput is inserts per time unit. Single saves commit one by one; saveBankAccounts writes ROWS rows in one
+// transaction. A JDBC batch size of 1 turns Hibernate batching off, as before pooled ids and batching.
+@State(Scope.Benchmark)
+public class DataFacadeInsertBenchmark {
+
+    private static final int ROWS = 500;
+    private static final String ACCOUNT_ID_PREFIX = "insert.benchmark.";
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private DataFacade dataFacade;
+    private JdbcTemplate jdbcTemplate;
+    private Long bankAccountId;
+    private long nextAccount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestsExamplesApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--bank-account.cache.listen.enabled=false",
+                        "--bank-account.purge.enabled=false",
+                        "--bank-account.outbox.relay.enabled=false");
+        dataFacade = context.getBean(DataFacade.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        bankAccountId = dataFacade.saveBankAccount(account()).get().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        String accountIds = ACCOUNT_ID_PREFIX + "%";
+        jdbcTemplate.update("DELETE FROM transaction WHERE bank_account_id IN (SELECT id FROM bank_account WHERE account_id LIKE ?)", accountIds);
+        jdbcTemplate.update("DELETE FROM outbox_event WHERE account_id LIKE ?", accountIds);
+        jdbcTemplate.update("DELETE FROM bank_account WHERE account_id LIKE ?", accountIds);
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveBankAccount() {
+        for (int i = 0; i < ROWS; i++) {
+            dataFacade.saveBankAccount(account());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BankAccount> saveBankAccounts() {
+        return dataFacade.saveBankAccounts(Stream.generate(this::account).limit(ROWS).toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveTransaction() {
+        for (int i = 0; i < ROWS; i++) {
+            dataFacade.saveTransaction(bankAccountId, BigDecimal.ONE, TransactionType.DEPOSIT);
+        }
+    }
+
+    private BankAccount account() {
+        return BankAccount.builder()
+                .accountId(ACCOUNT_ID_PREFIX + nextAccount++ + "@gmail.com")
+                .firstName("Insert")
+                .lastName("Benchmark")
+                .balance(BigDecimal.ZERO)
+                .minimumBalance(BigDecimal.ZERO)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ml.testsexamples.mappers;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.enums.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+public class BankAccountMapperBenchmark {
+
+    @Param({"0", "100", "10000", "100000"})
+    private int transactions;
+
+    private BankAccount bankAccount;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Transaction> history = LongStream.range(0, transactions)
+                .mapToObj(i -> Transaction.builder()
+                        .id(i)
+                        .bankAccountId(1L)
+                        .amount(BigDecimal.valueOf(i % 1000))
+                        .type(i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAW)
+                        .createdAt(createdAt)
+                        .build())
+                .toList();
+        bankAccount = BankAccount.builder()
+                .id(1L)
+                .accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore")
+                .lastName("Roosevelt")
+                .balance(BigDecimal.valueOf(3500))
+                .minimumBalance(BigDecimal.valueOf(1500))
+                .active(true)
+                .transactions(history)
+                .build();
+    }
+
+    @Benchmark
+    public BankAccountDto toDto() {
+        return BankAccountMapper.INSTANCE.toDto(bankAccount);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ml.testsexamples.services;
+
+import com.ml.testsexamples.caches.IdempotencyCache;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.facades.DataFacade;
+import com.ml.testsexamples.facades.PostingCoalescer;
+import com.ml.testsexamples.mappers.BankAccountMapper;
+import com.ml.testsexamples.utils.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@State(Scope.Benchmark)
+public class BankAccountServiceBenchmark {
+
+    private BankAccountService service;
+
+    @Setup
+    public void setUp() {
+        service = new BankAccountService(new InMemoryDataFacade(), BankAccountMapper.INSTANCE, PostingCoalescer.disabled(),
+                new IdempotencyCache(10_000, Duration.ofMinutes(10)), null);
+    }
+
+    @Benchmark
+    public Optional<BankAccountSummaryDto> makeDeposit() {
+        return service.makeDeposit("theodore.roosevelt@gmail.com", 250_50);
+    }
+
+    // Every call after the first is a retry answered from the recent idempotency keys.
+    @Benchmark
+    public Optional<BankAccountSummaryDto> makeDepositRetry() {
+        return service.makeDeposit("theodore.roosevelt@gmail.com", 250_50, "retried-deposit");
+    }
+
+    private static class InMemoryDataFacade extends DataFacade {
+
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        InMemoryDataFacade() {
+            super(null, null, null, null, null, null);
+        }
+
+        @Override
+        public Optional<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type, String idempotencyKey) {
+            return Optional.of(new BankAccountSnapshot(1L, accountId, "Theodore", "Roosevelt", BigDecimal.valueOf(3500).add(Money.toBigDecimal(amount)),
+                    BigDecimal.valueOf(1500), true, 1, createdAt, createdAt, createdAt, 1, 0));
+        }
+    }
+}
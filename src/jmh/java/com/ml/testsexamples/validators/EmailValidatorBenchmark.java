@@ -0,0 +1,29 @@
+package com.ml.testsexamples.validators;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class EmailValidatorBenchmark {
+
+    @Param({"theodore.roosevelt@gmail.com", "theodore.roosevelt.gmail.com", " Theodore.Roosevelt@Gmail.com "})
+    private String accountId;
+
+    @Benchmark
+    public boolean regex() {
+        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
+        return !accountId.matches(emailRegex);
+    }
+
+    @Benchmark
+    public boolean handWritten() {
+        return EmailValidator.isValid(accountId);
+    }
+
+    @Benchmark
+    public boolean canonicalizeAndValidate() {
+        return EmailValidator.isValid(EmailValidator.canonicalize(accountId));
+    }
+}
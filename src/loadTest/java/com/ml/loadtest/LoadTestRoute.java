@@ -0,0 +1,40 @@
+package com.ml.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Locale;
+
+public enum LoadTestRoute {
+    ACCOUNT_INFO, DEPOSIT, WITHDRAW, ACTIVATE, DEACTIVATE, GREETING;
+
+    public HttpRequest request(String baseUrl, String accountId) {
+        String accounts = baseUrl + "/api/v1/bank-accounts";
+        return switch (this) {
+            case ACCOUNT_INFO -> HttpRequest.newBuilder(URI.create(accounts + "/" + accountId)).GET().build();
+            case DEPOSIT -> post(accounts + "/deposit", transaction(accountId, 10));
+            case WITHDRAW -> post(accounts + "/withdraw", transaction(accountId, 5));
+            case ACTIVATE -> put(accounts + "/" + accountId + "/activate");
+            case DEACTIVATE -> put(accounts + "/" + accountId + "/deactivate");
+            case GREETING -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/greeting")).GET().build();
+        };
+    }
+
+    public static LoadTestRoute parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static HttpRequest put(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static String transaction(String accountId, int amount) {
+        return "{\"accountId\":\"" + accountId + "\",\"amount\":" + amount + "}";
+    }
+}
@@ -0,0 +1,163 @@
+package com.ml.loadtest;
+
+import com.ml.testsexamples.TestsExamplesApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Lives outside com.ml.testsexamples so component scanning never reads these JDK 21 class files.
+// Boots the application (unless loadtest.base-url points at a running instance), seeds accounts and sends
+// requests at a fixed arrival rate, one virtual thread per request.
+public class LoadTestRunner {
+
+    private static final String DEFAULT_MIX = "account-info=50,deposit=15,withdraw=15,activate=5,deactivate=5,greeting=10";
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 60L));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 10L));
+        int accounts = Integer.getInteger("loadtest.accounts", 100);
+        Map<LoadTestRoute, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        Path report = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/report.txt"));
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = System.getProperty("loadtest.base-url");
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(TestsExamplesApplication.class)
+                    .properties("server.port=0", "management.server.port=0", "spring.jpa.show-sql=false")
+                    .run(args);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(executor).build();
+            List<String> accountIds = seedAccounts(client, baseUrl, accounts);
+
+            drive(client, executor, baseUrl, accountIds, mix, rate, warmup);
+            Map<LoadTestRoute, RouteStats> stats = drive(client, executor, baseUrl, accountIds, mix, rate, duration);
+            writeReport(report, stats, rate, duration);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Map<LoadTestRoute, RouteStats> drive(HttpClient client, ExecutorService executor, String baseUrl,
+                                                        List<String> accountIds, Map<LoadTestRoute, Integer> mix,
+                                                        int rate, Duration duration) throws InterruptedException {
+        Map<LoadTestRoute, RouteStats> stats = new EnumMap<>(LoadTestRoute.class);
+        mix.keySet().forEach(route -> stats.put(route, new RouteStats()));
+        LoadTestRoute[] schedule = weightedSchedule(mix);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long requests = duration.toSeconds() * rate;
+        for (long i = 0; i < requests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadTestRoute route = schedule[(int) (i % schedule.length)];
+            String accountId = accountIds.get(ThreadLocalRandom.current().nextInt(accountIds.size()));
+            HttpRequest request = route.request(baseUrl, accountId);
+            executor.execute(() -> send(client, request, stats.get(route), intendedStart));
+        }
+        awaitInFlight(stats, requests);
+        return stats;
+    }
+
+    private static void send(HttpClient client, HttpRequest request, RouteStats stats, long intendedStart) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            stats.record(intendedStart, System.nanoTime(), response.statusCode());
+        } catch (IOException e) {
+            stats.recordFailure(intendedStart, System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitInFlight(Map<LoadTestRoute, RouteStats> stats, long requests) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (stats.values().stream().mapToLong(RouteStats::count).sum() < requests && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static List<String> seedAccounts(HttpClient client, String baseUrl, int accounts) throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<String> accountIds = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            String accountId = "loadtest." + runId + "." + i + "@example.com";
+            String account = "{\"accountId\":\"" + accountId + "\",\"firstName\":\"Load\",\"lastName\":\"Test\","
+                    + "\"balance\":1000000,\"minimumBalance\":0,\"active\":true,\"transactions\":[]}";
+            HttpResponse<Void> response = client.send(LoadTestRoute.post(baseUrl + "/api/v1/bank-accounts", account),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding " + accountId + " failed with status " + response.statusCode());
+            }
+            accountIds.add(accountId);
+        }
+        return accountIds;
+    }
+
+    // Interleaves the routes according to their weights so every window of the run sees the same mix.
+    private static LoadTestRoute[] weightedSchedule(Map<LoadTestRoute, Integer> mix) {
+        List<LoadTestRoute> schedule = new ArrayList<>();
+        int maxWeight = mix.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        for (int round = 0; round < maxWeight; round++) {
+            for (Map.Entry<LoadTestRoute, Integer> entry : mix.entrySet()) {
+                if (round < entry.getValue()) {
+                    schedule.add(entry.getKey());
+                }
+            }
+        }
+        return schedule.toArray(LoadTestRoute[]::new);
+    }
+
+    private static Map<LoadTestRoute, Integer> parseMix(String mix) {
+        Map<LoadTestRoute, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(LoadTestRoute.parse(parts[0]), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void writeReport(Path report, Map<LoadTestRoute, RouteStats> stats, int rate, Duration duration) throws IOException {
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+            writer.printf(Locale.ROOT, "target rate: %d req/s, duration: %d s%n%n", rate, duration.toSeconds());
+            writer.printf(Locale.ROOT, "%-14s %9s %10s %8s %9s %9s %9s %9s %9s  %s%n",
+                    "route", "requests", "req/s", "errors%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "status codes");
+            stats.forEach((route, routeStats) -> writer.printf(Locale.ROOT,
+                    "%-14s %9d %10.1f %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    route, routeStats.count(), routeStats.count() / (double) duration.toSeconds(),
+                    routeStats.count() == 0 ? 0 : 100.0 * routeStats.errors() / routeStats.count(),
+                    routeStats.percentileMillis(50), routeStats.percentileMillis(90), routeStats.percentileMillis(99),
+                    routeStats.percentileMillis(99.9), routeStats.maxMillis(), routeStats.statusCodes()));
+        }
+        System.out.println(Files.readString(report));
+    }
+}
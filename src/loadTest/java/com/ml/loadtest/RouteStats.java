@@ -0,0 +1,55 @@
+package com.ml.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RouteStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    // Latency is measured from the intended start time, so a stalled server is not hidden by the client
+    // sending fewer requests (coordinated omission).
+    public void record(long intendedStartNanos, long endNanos, int statusCode) {
+        latencies.recordValue(Math.min(endNanos - intendedStartNanos, HIGHEST_TRACKABLE_NANOS));
+        statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        if (statusCode < 200 || statusCode >= 400) {
+            errors.increment();
+        }
+    }
+
+    public void recordFailure(long intendedStartNanos, long endNanos) {
+        record(intendedStartNanos, endNanos, 0);
+    }
+
+    public long count() {
+        return latencies.getTotalCount();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    public double maxMillis() {
+        return latencies.getMaxValue() / 1e6;
+    }
+
+    public Map<Integer, Long> statusCodes() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCodes.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+}
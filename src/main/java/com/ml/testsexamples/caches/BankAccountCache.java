@@ -0,0 +1,203 @@
+package com.ml.testsexamples.caches;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Caches immutable snapshots so callers always get their own detached copy of the account.
+// Local updates are applied after commit; other nodes are told to evict through a NOTIFY that
+// PostgreSQL only delivers once the writing transaction commits.
+// Loads run on the calling thread outside of any map lock, so a virtual thread waiting on JDBC never pins its carrier.
+@Slf4j
+@Component
+public class BankAccountCache {
+
+    public static final String CHANNEL = "bank_account_cache";
+
+    private final boolean enabled;
+    private final AsyncCache<String, BankAccountSnapshot> cache;
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public BankAccountCache(@Value("${bank-account.cache.enabled:true}") boolean enabled,
+                            @Value("${bank-account.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${bank-account.cache.expire-after-write:30s}") Duration expireAfterWrite,
+                            JdbcTemplate jdbcTemplate) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .buildAsync();
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static BankAccountCache disabled() {
+        return new BankAccountCache(false, 0, Duration.ZERO, null);
+    }
+
+    public Optional<BankAccount> get(String accountId, Supplier<Optional<BankAccount>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<BankAccountSnapshot> loading = new CompletableFuture<>();
+        CompletableFuture<BankAccountSnapshot> cached = cache.asMap().putIfAbsent(accountId, loading);
+        if (cached == null) {
+            try {
+                // Completing with null (no such account) removes the entry again.
+                loading.complete(loader.get().map(BankAccountSnapshot::of).orElse(null));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+            cached = loading;
+        }
+        BankAccountSnapshot snapshot = cached.join();
+        if (snapshot != null && snapshot.balanceStripes() > 0) {
+            cache.asMap().remove(accountId, cached);
+        }
+        return Optional.ofNullable(snapshot).map(BankAccountSnapshot::toBankAccount);
+    }
+
+    public void putAfterCommit(BankAccountSnapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        notifyOtherNodes(snapshot.accountId());
+        afterCommit(() -> put(snapshot), () -> invalidate(snapshot.accountId()));
+    }
+
+    public void putAllAfterCommit(Collection<BankAccountSnapshot> snapshots) {
+        if (!enabled || snapshots.isEmpty()) {
+            return;
+        }
+        List<String> accountIds = snapshots.stream().map(BankAccountSnapshot::accountId).toList();
+        notifyOtherNodes(accountIds);
+        afterCommit(() -> snapshots.forEach(this::put), () -> cache.synchronous().invalidateAll(accountIds));
+    }
+
+    public void evictAfterCommit(String accountId) {
+        if (!enabled) {
+            return;
+        }
+        notifyOtherNodes(accountId);
+        afterCommit(() -> invalidate(accountId), () -> invalidate(accountId));
+    }
+
+    public void evictAllAfterCommit(Collection<String> accountIds) {
+        if (!enabled || accountIds.isEmpty()) {
+            return;
+        }
+        notifyOtherNodes(accountIds);
+        afterCommit(() -> cache.synchronous().invalidateAll(accountIds), () -> cache.synchronous().invalidateAll(accountIds));
+    }
+
+    public void onRemoteChange(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        invalidate(payload.substring(separator + 1));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    // Striped accounts take postings without locking their row, so no snapshot of them stays current.
+    // Transactions that commit back to back may run their callbacks in the other order, so a snapshot never
+    // replaces one of the same or a later version.
+    private void put(BankAccountSnapshot snapshot) {
+        if (snapshot.balanceStripes() > 0) {
+            invalidate(snapshot.accountId());
+            return;
+        }
+        CompletableFuture<BankAccountSnapshot> written = CompletableFuture.completedFuture(snapshot);
+        cache.asMap().compute(snapshot.accountId(),
+                (accountId, cached) -> isAtLeast(cached, snapshot.version()) ? cached : written);
+    }
+
+    private static boolean isAtLeast(CompletableFuture<BankAccountSnapshot> cached, long version) {
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return false;
+        }
+        BankAccountSnapshot snapshot = cached.getNow(null);
+        return snapshot != null && snapshot.version() >= version;
+    }
+
+    private void invalidate(String accountId) {
+        cache.synchronous().invalidate(accountId);
+    }
+
+    private void notifyOtherNodes(String accountId) {
+        notifyOtherNodes(List.of(accountId));
+    }
+
+    // Collects the transaction's account ids and sends them in one statement just before it commits, instead of a
+    // round trip per write.
+    @SuppressWarnings("unchecked")
+    private void notifyOtherNodes(Collection<String> accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendNotify(accountIds);
+            return;
+        }
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    sendNotify(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BankAccountCache.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.addAll(accountIds);
+    }
+
+    private void sendNotify(Collection<String> accountIds) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ? || ':' || account_id) FROM unnest(?::varchar[]) AS account_id",
+                CHANNEL, nodeId, accountIds.toArray(String[]::new));
+    }
+
+    private void afterCommit(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.ml.testsexamples.caches;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Holds one connection from the pool for the lifetime of the application.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "bank-account.cache.listen.enabled", havingValue = "true")
+public class BankAccountCacheListener {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final BankAccountCache cache;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "bank-account-cache-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + BankAccountCache.CHANNEL);
+                // Notifications sent while we were not listening are lost.
+                cache.invalidateAll();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            cache.onRemoteChange(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("BankAccountCacheListener.listen() - lost the notification connection, reconnecting", e);
+                    cache.invalidateAll();
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(POLL_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ml.testsexamples.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.exceptions.IdempotencyKeyReusedException;
+import com.ml.testsexamples.exceptions.InactiveAccountException;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.requests.PostingRequest;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Responses of recent postings by Idempotency-Key, so a client retrying on a timeout gets the original response
+// without a database round trip. Bounded in size; each entry expires a fixed time after it was written. Per-entry
+// expiry makes Caffeine track entries on its hierarchical timer wheel, so adding and expiring one costs O(1) however
+// many keys are held. The unique index on transaction.idempotency_key still catches retries this map has forgotten
+// or that reach another node. Rejections are kept too, so a retry is rejected the same way even if the account
+// changed meanwhile; a rejected posting writes no row, so only this map remembers them. They are kept by kind and
+// thrown anew on each replay, as one exception instance must not be shared between requests.
+@Component
+public class IdempotencyCache {
+
+    private final Cache<String, Entry> cache;
+
+    @Autowired
+    public IdempotencyCache(@Value("${bank-account.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${bank-account.idempotency.expire-after-write:10m}") Duration expireAfterWrite) {
+        this(maximumSize, expireAfterWrite, Ticker.systemTicker());
+    }
+
+    IdempotencyCache(long maximumSize, Duration expireAfterWrite, Ticker ticker) {
+        long expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return expireAfterWriteNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterWriteNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
+
+    // Empty when the key is not known; throws when it was used for a different posting, or the remembered rejection.
+    public Optional<BankAccountSummaryDto> replay(String idempotencyKey, PostingRequest posting) {
+        Entry entry = cache.getIfPresent(idempotencyKey);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.posting().equals(posting)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        if (entry.rejection() != null) {
+            throw entry.rejection().exception.get();
+        }
+        return Optional.of(entry.response());
+    }
+
+    public void put(String idempotencyKey, PostingRequest posting, BankAccountSummaryDto response) {
+        cache.put(idempotencyKey, new Entry(posting, response, null));
+    }
+
+    // Only the rejections of the posting itself are remembered; anything else is left for a retry to try again.
+    public void putRejection(String idempotencyKey, PostingRequest posting, RuntimeException rejection) {
+        Rejection.of(rejection).ifPresent(kind -> cache.put(idempotencyKey, new Entry(posting, null, kind)));
+    }
+
+    private record Entry(PostingRequest posting, BankAccountSummaryDto response, Rejection rejection) {
+    }
+
+    private enum Rejection {
+        NOT_FOUND(EntityNotFoundException.class, () -> new EntityNotFoundException("Invalid bank account")),
+        INACTIVE(InactiveAccountException.class, InactiveAccountException::new),
+        INSUFFICIENT_FUNDS(InsufficientFundsException.class, InsufficientFundsException::new);
+
+        private final Class<? extends RuntimeException> type;
+        private final Supplier<RuntimeException> exception;
+
+        Rejection(Class<? extends RuntimeException> type, Supplier<RuntimeException> exception) {
+            this.type = type;
+            this.exception = exception;
+        }
+
+        static Optional<Rejection> of(RuntimeException rejection) {
+            for (Rejection kind : values()) {
+                if (kind.type.isInstance(rejection)) {
+                    return Optional.of(kind);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
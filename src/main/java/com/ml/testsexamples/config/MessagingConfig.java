@@ -0,0 +1,84 @@
+package com.ml.testsexamples.config;
+
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class MessagingConfig {
+
+    // Declared by RabbitAdmin on the first connection; events are routed by OutboxEventType.routingKey().
+    @Bean
+    public TopicExchange bankAccountEventsExchange(@Value("${bank-account.outbox.exchange:bank-account.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    // Rejected messages go through the default exchange to the dead-letter queue. Existing brokers must delete the
+    // queue before the first start with these arguments, or its declaration fails.
+    @Bean
+    public Queue postingCommandQueue(@Value("${bank-account.ingest.queue:bank-account.postings}") String queue,
+                                     @Value("${bank-account.ingest.dead-letter-queue:bank-account.postings.dlq}") String deadLetterQueue) {
+        return QueueBuilder.durable(queue)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
+    }
+
+    @Bean
+    public Queue postingDeadLetterQueue(@Value("${bank-account.ingest.dead-letter-queue:bank-account.postings.dlq}") String queue) {
+        return new Queue(queue, true);
+    }
+
+    @Bean
+    public Queue postingReplyQueue(@Value("${bank-account.ingest.reply-queue:bank-account.posting-replies}") String queue) {
+        return new Queue(queue, true);
+    }
+
+    // A single consumer keeps the queue order, and with it the order of each account's postings. It receives up
+    // to batch-size messages, waiting at most receive-timeout to fill a batch, and acknowledges the whole batch
+    // with one multiple ack after the listener returns. The broker stops delivering once prefetch messages are
+    // unacknowledged, so a burst waits in the queue instead of in memory. A batch whose listener fails is retried
+    // in place up to max-attempts times and then rejected without requeue, i.e. dead-lettered, so one poison
+    // batch cannot block the queue; postings of its messages that had committed are not applied again on replay.
+    @Bean
+    public SimpleRabbitListenerContainerFactory postingCommandContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${bank-account.ingest.prefetch:1000}") int prefetch,
+            @Value("${bank-account.ingest.batch-size:500}") int batchSize,
+            @Value("${bank-account.ingest.receive-timeout:50ms}") Duration receiveTimeout,
+            @Value("${bank-account.ingest.max-attempts:3}") int maxAttempts,
+            @Value("${bank-account.ingest.retry-interval:1s}") Duration retryInterval) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(retryInterval.toMillis(), 2.0, retryInterval.toMillis() * 10)
+                .recoverer((MessageBatchRecoverer) (messages, cause) -> {
+                    throw new AmqpRejectAndDontRequeueException("Posting batch failed " + maxAttempts + " times", cause);
+                })
+                .build());
+        return factory;
+    }
+}
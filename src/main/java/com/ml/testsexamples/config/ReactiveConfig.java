@@ -0,0 +1,27 @@
+package com.ml.testsexamples.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.netty.resources.LoopResources;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    // Not exposed as a TransactionManager bean so @Transactional keeps resolving to the JPA one
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public NettyServerCustomizer eventLoopCustomizer(@Value("${bank-account.reactive.event-loop-threads:4}") int eventLoopThreads) {
+        return httpServer -> httpServer.runOn(LoopResources.create("bank-account-http", eventLoopThreads, true));
+    }
+}
@@ -1,28 +1,107 @@
 package com.ml.testsexamples.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.enums.ImportFormat;
+import com.ml.testsexamples.enums.StatementFormat;
+import com.ml.testsexamples.exceptions.InvalidPatchException;
+import com.ml.testsexamples.requests.BankAccountPatchRequest;
+import com.ml.testsexamples.requests.BulkActivationRequest;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
 import com.ml.testsexamples.requests.TransactionRequest;
 import jakarta.validation.Valid;
+import com.ml.testsexamples.dto.AccountImportResultDto;
 import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.dto.BatchPostingResultDto;
+import com.ml.testsexamples.dto.BulkActivationResultDto;
+import com.ml.testsexamples.dto.TransactionPageDto;
+import com.ml.testsexamples.dto.VersionedDto;
 import com.ml.testsexamples.services.BankAccountService;
+import com.ml.testsexamples.utils.BankAccountImportReader;
+import com.ml.testsexamples.utils.StatementWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.ml.testsexamples.utils.ControllerHelper.getLocation;
 
 @RequiredArgsConstructor
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/bank-accounts")
 public class BankAccountController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final BankAccountService bankAccountService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<BankAccountDto> getAccountInfo(@PathVariable("accountId") String accountId) {
-        Optional<BankAccountDto> accountInfo = bankAccountService.getAccountInfo(accountId);
-        return ResponseEntity.ok(accountInfo.get());
+    public ResponseEntity<BankAccountSummaryDto> getAccountInfo(@PathVariable("accountId") String accountId,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        VersionedDto<BankAccountSummaryDto> accountInfo = bankAccountService.getAccountInfo(accountId, ifNoneMatch);
+        if (accountInfo.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(accountInfo.eTag()).build();
+        }
+        return ResponseEntity.ok().eTag(accountInfo.eTag()).body(accountInfo.body());
+    }
+
+    @GetMapping(value = "/{accountId}", params = "includeTransactions=true")
+    public ResponseEntity<BankAccountDto> getAccountDetails(@PathVariable("accountId") String accountId) {
+        Optional<BankAccountDto> accountDetails = bankAccountService.getAccountDetails(accountId);
+        return ResponseEntity.ok(accountDetails.get());
+    }
+
+    @GetMapping("/{accountId}/transactions")
+    public ResponseEntity<TransactionPageDto> getTransactions(@PathVariable("accountId") String accountId,
+                                                              TransactionHistoryRequest filter,
+                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(bankAccountService.getTransactions(accountId, filter, cursor, limit));
+    }
+
+    // Streamed from a database cursor while the response is written. The account is checked first, so a missing
+    // account is still answered with an error rather than an empty statement.
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(@PathVariable("accountId") String accountId,
+                                                              @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                              @RequestParam(value = "format", defaultValue = "csv") String format) {
+        StatementFormat statementFormat = StatementFormat.of(format);
+        bankAccountService.getAccountInfo(accountId);
+        StreamingResponseBody body = out -> {
+            try (StatementWriter writer = new StatementWriter(statementFormat, out, objectMapper)) {
+                bankAccountService.streamStatement(accountId, from, to, writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(statementFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement." + statementFormat.fileExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @PostMapping
@@ -32,35 +111,108 @@ public class BankAccountController {
                 .orElseThrow(() -> new IllegalArgumentException("Invalid bank account data"));
     }
 
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<AccountImportResultDto> importAccountsCsv(InputStream body) throws IOException {
+        return importAccounts(body, ImportFormat.CSV);
+    }
+
+    @PostMapping(value = "/import", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<AccountImportResultDto> importAccountsNdjson(InputStream body) throws IOException {
+        return importAccounts(body, ImportFormat.NDJSON);
+    }
+
     @DeleteMapping("/{accountId}")
     public ResponseEntity<Void> deleteBankAccount(@PathVariable("accountId") String accountId) {
         bankAccountService.deleteBankAccountByAccountId(accountId);
         return ResponseEntity.noContent().build();
     }
 
+    // Members this endpoint cannot set are rejected rather than ignored, so a patch is applied entirely or not at all.
+    @PatchMapping(value = "/{accountId}", consumes = APPLICATION_MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<BankAccountSummaryDto> patchAccount(@PathVariable("accountId") String accountId,
+                                                              InputStream body,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws IOException {
+        BankAccountPatchRequest patch;
+        try {
+            patch = objectMapper.readerFor(BankAccountPatchRequest.class)
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(body);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException();
+        }
+        VersionedDto<BankAccountSummaryDto> patchedAccount = bankAccountService.patchAccount(accountId, patch, ifMatch);
+        return ResponseEntity.ok().eTag(patchedAccount.eTag()).body(patchedAccount.body());
+    }
+
     @PutMapping("/{accountId}/activate")
-    public ResponseEntity<BankAccountDto> activateAccount(@PathVariable("accountId") String accountId) {
-        Optional<BankAccountDto> activatedAccount = bankAccountService.activateAccount(accountId);
-        return ResponseEntity.ok(activatedAccount.get());
+    public ResponseEntity<BankAccountSummaryDto> activateAccount(@PathVariable("accountId") String accountId,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionedDto<BankAccountSummaryDto> activatedAccount = bankAccountService.activateAccount(accountId, ifMatch);
+        return ResponseEntity.ok().eTag(activatedAccount.eTag()).body(activatedAccount.body());
     }
 
     @PutMapping("/{accountId}/deactivate")
-    public ResponseEntity<BankAccountDto> deactivateAccount(@PathVariable("accountId") String accountId) {
-        Optional<BankAccountDto> deactivatedAccount = bankAccountService.deactivateAccount(accountId);
-        return ResponseEntity.ok(deactivatedAccount.get());
+    public ResponseEntity<BankAccountSummaryDto> deactivateAccount(@PathVariable("accountId") String accountId,
+                                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionedDto<BankAccountSummaryDto> deactivatedAccount = bankAccountService.deactivateAccount(accountId, ifMatch);
+        return ResponseEntity.ok().eTag(deactivatedAccount.eTag()).body(deactivatedAccount.body());
+    }
+
+    @PutMapping("/batch/activate")
+    public ResponseEntity<BulkActivationResultDto> activateAccounts(@RequestBody BulkActivationRequest request) {
+        return ResponseEntity.ok(bankAccountService.activateAccounts(request));
+    }
+
+    @PutMapping("/batch/deactivate")
+    public ResponseEntity<BulkActivationResultDto> deactivateAccounts(@RequestBody BulkActivationRequest request) {
+        return ResponseEntity.ok(bankAccountService.deactivateAccounts(request));
+    }
+
+    @PutMapping("/{accountId}/balance-stripes")
+    public ResponseEntity<BankAccountSummaryDto> setBalanceStripes(@PathVariable("accountId") String accountId,
+                                                                   @RequestParam("stripes") int stripes) {
+        Optional<BankAccountSummaryDto> updatedAccount = bankAccountService.setBalanceStripes(accountId, stripes);
+        return ResponseEntity.ok(updatedAccount.get());
+    }
+
+    @PostMapping(value = "/transactions/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchPostingResultDto> postBatch(@RequestBody List<PostingRequest> postings,
+                                                           @RequestParam(value = "mode", defaultValue = "ALL_OR_NOTHING") BatchMode mode) {
+        return toBatchResponse(bankAccountService.postBatch(postings, mode));
+    }
+
+    @PostMapping(value = "/transactions/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchPostingResultDto> postBatchStream(InputStream body,
+                                                                 @RequestParam(value = "mode", defaultValue = "ALL_OR_NOTHING") BatchMode mode) throws IOException {
+        try (MappingIterator<PostingRequest> lines = objectMapper.readerFor(PostingRequest.class).readValues(body)) {
+            return toBatchResponse(bankAccountService.postBatch(lines.readAll(), mode));
+        }
     }
 
     @PostMapping("/deposit")
-    public ResponseEntity<BankAccountDto> makeDeposit(@Valid @RequestBody TransactionRequest transaction) {
-        Optional<BankAccountDto> updatedAccount =
-                bankAccountService.makeDeposit(transaction.accountId(), transaction.amount());
+    public ResponseEntity<BankAccountSummaryDto> makeDeposit(@Valid @RequestBody TransactionRequest transaction,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Optional<BankAccountSummaryDto> updatedAccount =
+                bankAccountService.makeDeposit(transaction.accountId(), transaction.amount(), idempotencyKey);
         return ResponseEntity.ok(updatedAccount.get());
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<BankAccountDto> makeWithdraw(@Valid @RequestBody TransactionRequest transaction) {
-        Optional<BankAccountDto> updatedAccount =
-                bankAccountService.makeWithdraw(transaction.accountId(), transaction.amount());
+    public ResponseEntity<BankAccountSummaryDto> makeWithdraw(@Valid @RequestBody TransactionRequest transaction,
+                                                              @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Optional<BankAccountSummaryDto> updatedAccount =
+                bankAccountService.makeWithdraw(transaction.accountId(), transaction.amount(), idempotencyKey);
         return ResponseEntity.ok(updatedAccount.get());
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<AccountImportResultDto> importAccounts(InputStream body, ImportFormat format) throws IOException {
+        try (BankAccountImportReader reader = new BankAccountImportReader(body, format, objectMapper)) {
+            return ResponseEntity.ok(bankAccountService.importAccounts(reader));
+        }
+    }
+
+    private ResponseEntity<BatchPostingResultDto> toBatchResponse(BatchPostingResultDto result) {
+        boolean aborted = result.mode() == BatchMode.ALL_OR_NOTHING && result.applied() < result.results().size();
+        return ResponseEntity.status(aborted ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK).body(result);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ml.testsexamples.controllers;
+
+import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.dto.TransactionPageDto;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+import com.ml.testsexamples.requests.TransactionRequest;
+import com.ml.testsexamples.services.ReactiveBankAccountService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import static com.ml.testsexamples.utils.ControllerHelper.getLocation;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/bank-accounts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBankAccountController {
+
+    private final ReactiveBankAccountService bankAccountService;
+
+    @GetMapping("/{accountId}")
+    public Mono<BankAccountSummaryDto> getAccountInfo(@PathVariable("accountId") String accountId) {
+        return bankAccountService.getAccountInfo(accountId);
+    }
+
+    @GetMapping(value = "/{accountId}", params = "includeTransactions=true")
+    public Mono<BankAccountDto> getAccountDetails(@PathVariable("accountId") String accountId) {
+        return bankAccountService.getAccountDetails(accountId);
+    }
+
+    @GetMapping("/{accountId}/transactions")
+    public Mono<TransactionPageDto> getTransactions(@PathVariable("accountId") String accountId,
+                                                    TransactionHistoryRequest filter,
+                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                    @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return bankAccountService.getTransactions(accountId, filter, cursor, limit);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<BankAccountDto>> createAccount(@Valid @RequestBody BankAccountDto bankAccountDto) {
+        return bankAccountService.createAccount(bankAccountDto)
+                .map(dto -> ResponseEntity.created(getLocation()).body(dto));
+    }
+
+    @DeleteMapping("/{accountId}")
+    public Mono<ResponseEntity<Void>> deleteBankAccount(@PathVariable("accountId") String accountId) {
+        return bankAccountService.deleteBankAccountByAccountId(accountId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @PutMapping("/{accountId}/activate")
+    public Mono<BankAccountSummaryDto> activateAccount(@PathVariable("accountId") String accountId) {
+        return bankAccountService.activateAccount(accountId);
+    }
+
+    @PutMapping("/{accountId}/deactivate")
+    public Mono<BankAccountSummaryDto> deactivateAccount(@PathVariable("accountId") String accountId) {
+        return bankAccountService.deactivateAccount(accountId);
+    }
+
+    @PostMapping("/deposit")
+    public Mono<BankAccountSummaryDto> makeDeposit(@Valid @RequestBody TransactionRequest transaction) {
+        return bankAccountService.makeDeposit(transaction.accountId(), transaction.amount());
+    }
+
+    @PostMapping("/withdraw")
+    public Mono<BankAccountSummaryDto> makeWithdraw(@Valid @RequestBody TransactionRequest transaction) {
+        return bankAccountService.makeWithdraw(transaction.accountId(), transaction.amount());
+    }
+}
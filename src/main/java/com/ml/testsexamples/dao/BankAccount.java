@@ -3,6 +3,9 @@ package com.ml.testsexamples.dao;
 import lombok.*;
 import jakarta.persistence.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Where;
 
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -16,13 +19,14 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "bank_account")
+@Where(clause = "deleted_at IS NULL")
 public class BankAccount {
 
     @Id
     @SequenceGenerator(
             name = "bank_account_id_sequence",
             sequenceName = "bank_account_id_sequence",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -49,9 +53,17 @@ public class BankAccount {
 
     private boolean active;
 
-    @OneToMany(mappedBy = "bankAccountId", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "bankAccountId", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> transactions;
 
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long transactionCount;
+
+    private LocalDateTime lastActivityAt;
+
     @Builder.Default
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now(Clock.systemDefaultZone());
@@ -59,4 +71,47 @@ public class BankAccount {
     @Builder.Default
     @Column(nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now(Clock.systemDefaultZone());
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Number of sub-balance rows in bank_account_balance_stripe; 0 keeps the whole balance on this row.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int balanceStripes;
+
+    @Formula("(select coalesce(sum(s.balance), 0) from bank_account_balance_stripe s where s.bank_account_id = id)")
+    private BigDecimal stripedBalance;
+
+    @Formula("(select coalesce(sum(s.transaction_count), 0) from bank_account_balance_stripe s where s.bank_account_id = id)")
+    private long stripedTransactionCount;
+
+    @Formula("(select max(s.last_activity_at) from bank_account_balance_stripe s where s.bank_account_id = id)")
+    private LocalDateTime stripedLastActivityAt;
+
+    // Set when the account is deleted. The row stays, hidden from every read, until BankAccountPurger has
+    // removed its transactions and then the row itself.
+    private LocalDateTime deletedAt;
+
+    public BigDecimal getTotalBalance() {
+        return balance == null || stripedBalance == null ? balance : balance.add(stripedBalance);
+    }
+
+    public long getTotalTransactionCount() {
+        return transactionCount + stripedTransactionCount;
+    }
+
+    public LocalDateTime getLatestActivityAt() {
+        if (lastActivityAt == null || stripedLastActivityAt == null) {
+            return lastActivityAt == null ? stripedLastActivityAt : lastActivityAt;
+        }
+        return lastActivityAt.isAfter(stripedLastActivityAt) ? lastActivityAt : stripedLastActivityAt;
+    }
+
+    // Postings to sub-balances never touch this row, so they are counted into the version exposed as ETag.
+    public long getEntityVersion() {
+        return version + stripedTransactionCount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.ml.testsexamples.dao;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Sub-balance of a hot account. Only written through BankAccountStripeRepository; mapped so that the schema
+// exists wherever Hibernate generates it.
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@IdClass(BankAccountBalanceStripe.Key.class)
+@Table(name = "bank_account_balance_stripe")
+public class BankAccountBalanceStripe {
+
+    @Id
+    private Long bankAccountId;
+
+    @Id
+    private int stripe;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long transactionCount;
+
+    private LocalDateTime lastActivityAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long bankAccountId;
+        private int stripe;
+    }
+}
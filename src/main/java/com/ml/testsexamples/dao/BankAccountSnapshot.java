@@ -0,0 +1,53 @@
+package com.ml.testsexamples.dao;
+
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Table("bank_account")
+public record BankAccountSnapshot(
+        Long id,
+        String accountId,
+        String firstName,
+        String lastName,
+        BigDecimal balance,
+        BigDecimal minimumBalance,
+        boolean active,
+        long transactionCount,
+        LocalDateTime lastActivityAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        long version,
+        int balanceStripes) {
+
+    public static BankAccountSnapshot of(BankAccount bankAccount) {
+        return new BankAccountSnapshot(bankAccount.getId(), bankAccount.getAccountId(), bankAccount.getFirstName(),
+                bankAccount.getLastName(), bankAccount.getTotalBalance(), bankAccount.getMinimumBalance(), bankAccount.isActive(),
+                bankAccount.getTotalTransactionCount(), bankAccount.getLatestActivityAt(), bankAccount.getCreatedAt(),
+                bankAccount.getUpdatedAt(), bankAccount.getEntityVersion(), bankAccount.getBalanceStripes());
+    }
+
+    public BankAccount toBankAccount() {
+        return BankAccount.builder()
+                .id(id)
+                .accountId(accountId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .balance(balance)
+                .minimumBalance(minimumBalance)
+                .active(active)
+                .transactionCount(transactionCount)
+                .lastActivityAt(lastActivityAt)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(version)
+                .balanceStripes(balanceStripes)
+                .build();
+    }
+
+    public BankAccountSnapshot posted(BigDecimal newBalance, LocalDateTime postedAt) {
+        return new BankAccountSnapshot(id, accountId, firstName, lastName, newBalance, minimumBalance, active,
+                transactionCount + 1, postedAt, createdAt, postedAt, version + 1, balanceStripes);
+    }
+}
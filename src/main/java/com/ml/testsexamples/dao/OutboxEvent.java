@@ -0,0 +1,35 @@
+package com.ml.testsexamples.dao;
+
+import com.ml.testsexamples.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// An event waiting to be published. Only written and read through OutboxRepository; mapped so that the schema
+// exists wherever Hibernate generates it.
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String accountId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
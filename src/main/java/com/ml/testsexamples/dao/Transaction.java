@@ -15,14 +15,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Data
 @Entity
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = {
+        @Index(name = "transaction_bank_account_id_created_at_id_idx", columnList = "bankAccountId, createdAt, id"),
+        @Index(name = "transaction_idempotency_key_idx", columnList = "idempotencyKey", unique = true)
+})
 public class Transaction {
 
     @Id
     @SequenceGenerator(
             name = "transaction_id_sequence",
             sequenceName = "transaction_id_sequence",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -47,4 +50,7 @@ public class Transaction {
     @Builder.Default
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now(Clock.systemDefaultZone());
+
+    // Idempotency-Key of the request that posted this transaction, if it sent one.
+    private String idempotencyKey;
 }
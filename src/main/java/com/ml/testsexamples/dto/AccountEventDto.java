@@ -0,0 +1,31 @@
+package com.ml.testsexamples.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.OutboxEventType;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.utils.Money;
+
+// Body of a published event. account is the state after the change, where the change returned it; postings
+// also carry their amount, in minor units internally and major units in JSON.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountEventDto(
+        OutboxEventType type,
+        String accountId,
+        TransactionType transactionType,
+        @JsonSerialize(using = Money.Serializer.class) Long amount,
+        BankAccountSnapshot account) {
+
+    public static AccountEventDto of(OutboxEventType type, String accountId) {
+        return new AccountEventDto(type, accountId, null, null, null);
+    }
+
+    public static AccountEventDto of(OutboxEventType type, BankAccountSnapshot account) {
+        return new AccountEventDto(type, account.accountId(), null, null, account);
+    }
+
+    public static AccountEventDto posted(String accountId, TransactionType transactionType, long amount, BankAccountSnapshot account) {
+        return new AccountEventDto(OutboxEventType.TRANSACTION_POSTED, accountId, transactionType, amount, account);
+    }
+}
@@ -0,0 +1,6 @@
+package com.ml.testsexamples.dto;
+
+public record AccountImportErrorDto(
+        long line,
+        String message) {
+}
@@ -0,0 +1,12 @@
+package com.ml.testsexamples.dto;
+
+import java.util.List;
+
+// errors holds the first lines rejected while reading only; rejected counts all of them, and the lines of accounts
+// deleted but not purged yet.
+public record AccountImportResultDto(
+        long inserted,
+        long updated,
+        long rejected,
+        List<AccountImportErrorDto> errors) {
+}
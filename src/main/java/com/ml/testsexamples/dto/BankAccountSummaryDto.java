@@ -0,0 +1,17 @@
+package com.ml.testsexamples.dto;
+
+import lombok.NonNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BankAccountSummaryDto(
+        @NonNull String accountId,
+        @NonNull String firstName,
+        @NonNull String lastName,
+        @NonNull BigDecimal balance,
+        @NonNull BigDecimal minimumBalance,
+        boolean active,
+        long transactionCount,
+        LocalDateTime lastActivityAt) {
+}
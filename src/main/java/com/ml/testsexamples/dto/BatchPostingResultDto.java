@@ -0,0 +1,14 @@
+package com.ml.testsexamples.dto;
+
+import com.ml.testsexamples.enums.BatchMode;
+import lombok.NonNull;
+
+import java.util.List;
+
+public record BatchPostingResultDto(
+        @NonNull BatchMode mode,
+        int applied,
+        int rejected,
+        int aborted,
+        @NonNull List<PostingResultDto> results) {
+}
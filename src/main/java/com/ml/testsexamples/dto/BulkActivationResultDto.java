@@ -0,0 +1,12 @@
+package com.ml.testsexamples.dto;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public record BulkActivationResultDto(
+        boolean active,
+        int updated,
+        int unchanged,
+        @NonNull List<String> notFound) {
+}
@@ -0,0 +1,15 @@
+package com.ml.testsexamples.dto;
+
+import com.ml.testsexamples.enums.PostingStatus;
+import com.ml.testsexamples.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+public record PostingResultDto(
+        String accountId,
+        TransactionType type,
+        BigDecimal amount,
+        PostingStatus status,
+        String message,
+        BigDecimal balance) {
+}
@@ -0,0 +1,13 @@
+package com.ml.testsexamples.dto;
+
+import com.ml.testsexamples.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record StatementLineDto(
+        LocalDateTime createdAt,
+        TransactionType type,
+        BigDecimal amount,
+        BigDecimal balance) {
+}
@@ -0,0 +1,37 @@
+package com.ml.testsexamples.dto;
+
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record TransactionCursor(LocalDateTime createdAt, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getCreatedAt(), transaction.getId());
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,10 @@
+package com.ml.testsexamples.dto;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public record TransactionPageDto(
+        @NonNull List<TransactionDto> transactions,
+        String nextCursor) {
+}
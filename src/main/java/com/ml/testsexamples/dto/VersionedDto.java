@@ -0,0 +1,12 @@
+package com.ml.testsexamples.dto;
+
+public record VersionedDto<T>(String eTag, T body) {
+
+    public static <T> VersionedDto<T> notModified(String eTag) {
+        return new VersionedDto<>(eTag, null);
+    }
+
+    public boolean isNotModified() {
+        return body == null;
+    }
+}
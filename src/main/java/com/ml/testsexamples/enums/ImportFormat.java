@@ -0,0 +1,17 @@
+package com.ml.testsexamples.enums;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV, NDJSON;
+
+    public static ImportFormat ofFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        for (ImportFormat format : values()) {
+            if (lowerCaseName.endsWith("." + format.name().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Import file must end in .csv or .ndjson: " + fileName);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ml.testsexamples.enums;
+
+public enum OutboxEventType {
+    ACCOUNT_CREATED, ACCOUNT_UPDATED, ACCOUNT_ACTIVATED, ACCOUNT_DEACTIVATED, ACCOUNT_DELETED, TRANSACTION_POSTED;
+
+    // account.created, transaction.posted, ...
+    public String routingKey() {
+        return name().toLowerCase().replace('_', '.');
+    }
+}
@@ -0,0 +1,5 @@
+package com.ml.testsexamples.enums;
+
+public enum PostingStatus {
+    APPLIED, REJECTED, ABORTED
+}
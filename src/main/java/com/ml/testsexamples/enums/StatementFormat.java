@@ -0,0 +1,32 @@
+package com.ml.testsexamples.enums;
+
+import com.ml.testsexamples.exceptions.InvalidStatementFormatException;
+
+import java.util.Locale;
+
+public enum StatementFormat {
+    CSV("text/csv"), NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    StatementFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static StatementFormat of(String format) {
+        for (StatementFormat statementFormat : values()) {
+            if (statementFormat.name().equalsIgnoreCase(format)) {
+                return statementFormat;
+            }
+        }
+        throw new InvalidStatementFormatException();
+    }
+}
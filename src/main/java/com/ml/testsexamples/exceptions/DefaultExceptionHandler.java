@@ -3,6 +3,7 @@ package com.ml.testsexamples.exceptions;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @Slf4j
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DefaultExceptionHandler {
 
     @ExceptionHandler(EntityNotFoundException.class)
@@ -66,6 +68,69 @@ public class DefaultExceptionHandler {
         return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidCursorException(InvalidCursorException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidStatementFormatException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidStatementFormatException(InvalidStatementFormatException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidAmountException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidAmountException(InvalidAmountException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidBalanceStripesException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidBalanceStripesException(InvalidBalanceStripesException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidBulkActivationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidBulkActivationException(InvalidBulkActivationException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidPatchException(InvalidPatchException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ApiError handlePreconditionFailedException(PreconditionFailedException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.PRECONDITION_FAILED.value());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ApiError handleIdempotencyKeyReusedException(IdempotencyKeyReusedException e, HttpServletRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY.value());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleExceptions(Exception e, HttpServletRequest request) {
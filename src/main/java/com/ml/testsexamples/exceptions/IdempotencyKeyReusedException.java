@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used for a different request");
+    }
+}
@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class InvalidAmountException extends RuntimeException {
+    public InvalidAmountException() {
+        super("Amount must be a positive number");
+    }
+}
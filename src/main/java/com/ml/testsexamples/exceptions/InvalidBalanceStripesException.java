@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class InvalidBalanceStripesException extends RuntimeException {
+    public InvalidBalanceStripesException() {
+        super("Balance stripes must be between 0 and 64");
+    }
+}
@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class InvalidBulkActivationException extends RuntimeException {
+    public InvalidBulkActivationException() {
+        super("Either accountIds or inactiveSince must be given");
+    }
+}
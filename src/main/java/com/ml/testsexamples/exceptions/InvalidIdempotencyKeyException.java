@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException() {
+        super("Idempotency-Key must be between 1 and 255 characters");
+    }
+}
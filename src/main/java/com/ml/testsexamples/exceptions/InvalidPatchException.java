@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException() {
+        super("Patch may only set firstName, lastName, minimumBalance and active to non-null values");
+    }
+}
@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class InvalidStatementFormatException extends RuntimeException {
+    public InvalidStatementFormatException() {
+        super("Statement format must be csv or ndjson");
+    }
+}
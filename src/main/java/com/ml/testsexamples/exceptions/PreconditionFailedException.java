@@ -0,0 +1,7 @@
+package com.ml.testsexamples.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException() {
+        super("Bank account has been modified");
+    }
+}
@@ -0,0 +1,95 @@
+package com.ml.testsexamples.exceptions;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+@Slf4j
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleEntityNotFoundException(EntityNotFoundException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.NOT_FOUND.value());
+    }
+
+    @ExceptionHandler(InactiveAccountException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiError handleInactiveAccountException(InactiveAccountException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiError handleDataIntegrityViolationException(DataIntegrityViolationException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, "Internal SQL error", HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInsufficientFundsException(InsufficientFundsException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleWebExchangeBindException(WebExchangeBindException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        String fieldName = e.getMessage().contains("accountId") ? "accountId" : "amount";
+        String errorMessage = "Request validation exception [" + "field: " + fieldName + "]";
+        return createApiError(request, errorMessage, HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleServerWebInputException(ServerWebInputException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, "Wrong field type exception", HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(EmailValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleEmailValidationException(EmailValidationException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidCursorException(InvalidCursorException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(InvalidAmountException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidAmountException(InvalidAmountException e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred. ", e);
+        return createApiError(request, e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExceptionHandler(Exception.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiError handleExceptions(Exception e, ServerHttpRequest request) {
+        log.error("Unhandled exception occurred", e);
+        return createApiError(request, e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    private ApiError createApiError(ServerHttpRequest request, String message, int statusCode) {
+        return new ApiError(request.getPath().value(), message, statusCode);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ml.testsexamples.facades;
+
+public record AccountImportOutcome(
+        long inserted,
+        long updated,
+        long rejected) {
+}
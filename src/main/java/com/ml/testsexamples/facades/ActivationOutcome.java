@@ -0,0 +1,8 @@
+package com.ml.testsexamples.facades;
+
+import java.util.List;
+
+public record ActivationOutcome(
+        List<String> updated,
+        List<String> notFound) {
+}
@@ -0,0 +1,51 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.caches.BankAccountCache;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dto.AccountEventDto;
+import com.ml.testsexamples.enums.OutboxEventType;
+import com.ml.testsexamples.repositories.BankAccountImportRepository;
+import com.ml.testsexamples.repositories.BankAccountImportRepository.UpsertResult;
+import com.ml.testsexamples.repositories.OutboxRepository;
+import com.ml.testsexamples.requests.BankAccountImportRow;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Imports all rows or none: the copy, the upsert and the outbox events share one transaction, and the staging
+// table goes with it. Lines of accounts deleted but not purged yet are counted as rejected.
+@Slf4j
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class BankAccountImporter {
+
+    private final BankAccountImportRepository importRepository;
+    private final BankAccountCache bankAccountCache;
+    private final OutboxRepository outboxRepository;
+
+    public AccountImportOutcome importAccounts(Iterator<BankAccountImportRow> rows) {
+        importRepository.createStagingTable();
+        long copied = importRepository.copyIntoStagingTable(rows);
+        UpsertResult result = importRepository.upsertFromStagingTable();
+        long rejected = importRepository.countDeletedAccountLines();
+        log.info("BankAccountImporter.importAccounts(rows) - upserted the staged accounts. copied: {}, inserted: {}, updated: {}, rejected: {}",
+                copied, result.inserted().size(), result.updated().size(), rejected);
+
+        bankAccountCache.evictAllAfterCommit(result.updated().stream().map(BankAccountSnapshot::accountId).toList());
+        outboxRepository.appendAll(Stream.concat(
+                        events(OutboxEventType.ACCOUNT_CREATED, result.inserted()),
+                        events(OutboxEventType.ACCOUNT_UPDATED, result.updated()))
+                .toList());
+        return new AccountImportOutcome(result.inserted().size(), result.updated().size(), rejected);
+    }
+
+    private static Stream<AccountEventDto> events(OutboxEventType type, List<BankAccountSnapshot> accounts) {
+        return accounts.stream().map(account -> AccountEventDto.of(type, account));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.repositories.BankAccountPurgeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Removes deleted accounts in the background, oldest deletion first: their transactions in batches of at most
+// batchSize rows, then the account row. Each batch commits on its own and is followed by a pause, so the purge
+// never holds many locks or saturates the database while online traffic runs.
+@Slf4j
+@Component
+public class BankAccountPurger {
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final long idleMillis;
+    private final BankAccountPurgeRepository purgeRepository;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Autowired
+    public BankAccountPurger(@Value("${bank-account.purge.enabled:true}") boolean enabled,
+                             @Value("${bank-account.purge.batch-size:500}") int batchSize,
+                             @Value("${bank-account.purge.pause:100ms}") Duration pause,
+                             @Value("${bank-account.purge.idle-interval:30s}") Duration idleInterval,
+                             BankAccountPurgeRepository purgeRepository) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pauseMillis = pause.toMillis();
+        this.idleMillis = idleInterval.toMillis();
+        this.purgeRepository = purgeRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "bank-account-purger");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    // Runs one batch. Returns false when no deleted account is left.
+    public boolean purgeBatch() {
+        Optional<Long> next = purgeRepository.findNextDeleted();
+        if (next.isEmpty()) {
+            return false;
+        }
+        long id = next.get();
+        if (purgeRepository.deleteTransactions(id, batchSize) > 0) {
+            return true;
+        }
+        if (purgeRepository.deleteAccount(id)) {
+            log.info("BankAccountPurger.purgeBatch() - purged deleted account. id: {}", id);
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                boolean more;
+                try {
+                    more = purgeBatch();
+                } catch (RuntimeException e) {
+                    log.error("BankAccountPurger.run() - failed to purge deleted accounts, retrying later", e);
+                    more = false;
+                }
+                Thread.sleep(more ? pauseMillis : idleMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
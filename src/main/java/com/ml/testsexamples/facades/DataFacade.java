@@ -1,19 +1,48 @@
 package com.ml.testsexamples.facades;
 
+import com.ml.testsexamples.caches.BankAccountCache;
 import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
 import com.ml.testsexamples.dao.Transaction;
-import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.dto.AccountEventDto;
+import com.ml.testsexamples.dto.TransactionCursor;
+import com.ml.testsexamples.dto.TransactionDto;
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.enums.OutboxEventType;
+import com.ml.testsexamples.enums.PostingStatus;
 import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.exceptions.PreconditionFailedException;
+import com.ml.testsexamples.repositories.BankAccountPostingRepository;
+import com.ml.testsexamples.repositories.BankAccountPostingRepository.AccountKey;
 import com.ml.testsexamples.repositories.BankAccountRepository;
+import com.ml.testsexamples.repositories.BankAccountStripeRepository;
+import com.ml.testsexamples.repositories.OutboxRepository;
 import com.ml.testsexamples.repositories.TransactionRepository;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+import com.ml.testsexamples.utils.Money;
+import com.ml.testsexamples.validators.BankAccountValidator;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 @Transactional
@@ -21,17 +50,39 @@ import java.util.Optional;
 public class DataFacade {
     private final BankAccountRepository bankAccountRepository;
     private final TransactionRepository transactionRepository;
+    private final BankAccountPostingRepository postingRepository;
+    private final BankAccountCache bankAccountCache;
+    private final BankAccountStripeRepository stripeRepository;
+    private final OutboxRepository outboxRepository;
 
     public List<BankAccount> findAllBankAccounts() {
         return bankAccountRepository.findAll();
     }
 
     public Optional<BankAccount> findBankAccountByAccountId(String accountId) {
-        return bankAccountRepository.findBankAccountByAccountId(accountId);
+        return bankAccountCache.get(accountId, () -> bankAccountRepository.findBankAccountByAccountId(accountId));
+    }
+
+    public Optional<BankAccount> findBankAccountWithTransactionsByAccountId(String accountId) {
+        return bankAccountRepository.findBankAccountWithTransactionsByAccountId(accountId);
     }
 
     public Optional<BankAccount> saveBankAccount(BankAccount bankAccount) {
-        return Optional.of(bankAccountRepository.save(bankAccount));
+        BankAccount saved = bankAccountRepository.save(bankAccount);
+        BankAccountSnapshot snapshot = BankAccountSnapshot.of(saved);
+        bankAccountCache.putAfterCommit(snapshot);
+        outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_CREATED, snapshot));
+        return Optional.of(saved);
+    }
+
+    public List<BankAccount> saveBankAccounts(List<BankAccount> bankAccounts) {
+        List<BankAccount> saved = bankAccountRepository.saveAll(bankAccounts);
+        List<BankAccountSnapshot> snapshots = saved.stream().map(BankAccountSnapshot::of).toList();
+        bankAccountCache.putAllAfterCommit(snapshots);
+        outboxRepository.appendAll(snapshots.stream()
+                .map(snapshot -> AccountEventDto.of(OutboxEventType.ACCOUNT_CREATED, snapshot))
+                .toList());
+        return saved;
     }
 
     public void saveTransaction(Long bankAccountId, BigDecimal amount, TransactionType type) {
@@ -41,41 +92,199 @@ public class DataFacade {
                 .type(type)
                 .build();
         transactionRepository.save(transaction);
+        String accountId = postingRepository.recordActivity(bankAccountId, 1, transaction.getCreatedAt());
+        bankAccountCache.evictAfterCommit(accountId);
+        outboxRepository.append(AccountEventDto.posted(accountId, type, Money.toMinorUnits(amount), null));
+    }
+
+    public Optional<Transaction> findTransactionByIdempotencyKey(String idempotencyKey) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    public List<Transaction> findTransactionsByIdempotencyKeys(Collection<String> idempotencyKeys) {
+        return transactionRepository.findByIdempotencyKeyIn(idempotencyKeys);
+    }
+
+    public List<Transaction> findTransactionsPage(Long bankAccountId, TransactionHistoryRequest filter, TransactionCursor cursor, int limit) {
+        return transactionRepository.findTransactionsPage(bankAccountId, filter, cursor, limit);
+    }
+
+    // Hands the consumer the balance before from and the transactions from from to to, oldest first, within one
+    // transaction: the PostgreSQL driver only reads fetchSize rows at a time inside one. A posting committed after
+    // the balance was read is created after from, so it does not change that balance.
+    public void streamStatement(Long bankAccountId, LocalDateTime from, LocalDateTime to, int fetchSize,
+                                BiConsumer<BigDecimal, Stream<TransactionDto>> consumer) {
+        BigDecimal openingBalance = transactionRepository.findBalanceBefore(bankAccountId, from);
+        try (Stream<TransactionDto> transactions = transactionRepository.streamTransactions(bankAccountId, from, to, fetchSize)) {
+            consumer.accept(openingBalance, transactions);
+        }
+    }
+
+    // The single-statement posting skips striped accounts; those, and postings it rejected, go through the
+    // striped path, which also gives the final answer for missing, inactive or underfunded accounts.
+    public Optional<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type) {
+        return postTransaction(accountId, amount, type, null);
+    }
+
+    // Throws DuplicateKeyException, and commits nothing, when the idempotency key was already used.
+    public Optional<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type, String idempotencyKey) {
+        Optional<BankAccountSnapshot> posted = postingRepository.postTransaction(accountId, amount, type, idempotencyKey);
+        if (posted.isPresent()) {
+            bankAccountCache.putAfterCommit(posted.get());
+            outboxRepository.append(AccountEventDto.posted(accountId, type, amount, posted.get()));
+            return posted;
+        }
+        Optional<BankAccountSnapshot> striped = stripeRepository.postTransaction(accountId, amount, type, idempotencyKey);
+        striped.ifPresent(account -> {
+            bankAccountCache.evictAfterCommit(account.accountId());
+            outboxRepository.append(AccountEventDto.posted(accountId, type, amount, account));
+        });
+        return striped;
+    }
+
+    public Optional<BankAccountSnapshot> setBalanceStripes(String accountId, int stripes) {
+        Optional<BankAccountSnapshot> restriped = stripeRepository.setBalanceStripes(accountId, stripes);
+        restriped.ifPresent(account -> {
+            bankAccountCache.evictAfterCommit(account.accountId());
+            outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_UPDATED, account));
+        });
+        return restriped;
+    }
+
+    public List<PostingOutcome> applyPostings(List<PostingRequest> postings, BatchMode mode) {
+        return applyPostings(postings, Collections.nCopies(postings.size(), null), mode);
     }
 
-    public Optional<BankAccount> updateBankAccount(String accountId, List<Pair<BankAccountFields, String>> data) {
-        Optional<BankAccount> original = bankAccountRepository.findBankAccountByAccountId(accountId);
-        return original.map(account -> {
-            BankAccount.BankAccountBuilder builder = BankAccount.builder()
-                    .id(account.getId())
-                    .accountId(account.getAccountId())
-                    .firstName(account.getFirstName())
-                    .lastName(account.getLastName())
-                    .balance(account.getBalance())
-                    .minimumBalance(account.getMinimumBalance())
-                    .active(account.isActive())
-                    .createdAt(account.getCreatedAt());
-
-            data.forEach(pair -> {
-                BankAccountFields field = pair.getFirst();
-                String value = pair.getSecond();
-
-                switch (field) {
-                    case FIRST_NAME -> builder.firstName(value);
-                    case LAST_NAME -> builder.lastName(value);
-                    case BALANCE -> builder.balance(new BigDecimal(value));
-                    case MINIMUM_BALANCE -> builder.minimumBalance(new BigDecimal(value));
-                    case ACTIVE -> builder.active(Boolean.parseBoolean(value));
-                    default -> throw new IllegalArgumentException("You are unauthorized to update this field.");
+    // Postings are evaluated in request order against the locked rows, then written with one set-based
+    // update for the balances and one JDBC batch for the transaction rows. idempotencyKeys holds a key or null
+    // per posting; an applied posting stores its key on its transaction row, and a key that is already stored
+    // fails the whole call with DuplicateKeyException.
+    public List<PostingOutcome> applyPostings(List<PostingRequest> postings, List<String> idempotencyKeys, BatchMode mode) {
+        Set<String> accountIds = postings.stream().map(PostingRequest::accountId).collect(Collectors.toSet());
+        Map<String, BankAccountSnapshot> accounts = postingRepository.lockBankAccounts(accountIds).stream()
+                .collect(Collectors.toMap(BankAccountSnapshot::accountId, Function.identity()));
+
+        LocalDateTime postedAt = LocalDateTime.now(Clock.systemDefaultZone());
+        List<PostingOutcome> outcomes = new ArrayList<>(postings.size());
+        List<Transaction> transactions = new ArrayList<>(postings.size());
+        Map<Long, Integer> postingCounts = new HashMap<>();
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<String, Long> balances = new HashMap<>();
+
+        for (int i = 0; i < postings.size(); i++) {
+            PostingRequest posting = postings.get(i);
+            BankAccountSnapshot account = accounts.get(posting.accountId());
+            long amount = posting.amount();
+            long balance;
+            try {
+                if (account == null) {
+                    throw new EntityNotFoundException("Invalid bank account");
                 }
-            });
+                BankAccountValidator.validateActive(account.active());
+                balance = balances.computeIfAbsent(posting.accountId(), accountId -> Money.toMinorUnits(account.balance()));
+                if (posting.type() == TransactionType.WITHDRAW) {
+                    BankAccountValidator.validateSufficientFunds(balance, Money.toMinorUnits(account.minimumBalance()), amount);
+                }
+            } catch (RuntimeException e) {
+                outcomes.add(PostingOutcome.rejected(posting, e));
+                continue;
+            }
+
+            long delta = posting.type() == TransactionType.DEPOSIT ? amount : -amount;
+            balances.put(posting.accountId(), balance + delta);
+            BankAccountSnapshot posted = account.posted(Money.toBigDecimal(balance + delta), postedAt);
+            accounts.put(posting.accountId(), posted);
+            postingCounts.merge(posted.id(), 1, Integer::sum);
+            deltas.merge(posted.id(), delta, Long::sum);
+            transactions.add(Transaction.builder()
+                    .bankAccountId(posted.id())
+                    .amount(Money.toBigDecimal(amount))
+                    .type(posting.type())
+                    .createdAt(postedAt)
+                    .idempotencyKey(idempotencyKeys.get(i))
+                    .build());
+            outcomes.add(PostingOutcome.applied(posting, posted));
+        }
+
+        boolean rejected = outcomes.stream().anyMatch(outcome -> outcome.status() == PostingStatus.REJECTED);
+        if (mode == BatchMode.ALL_OR_NOTHING && rejected) {
+            return outcomes.stream()
+                    .map(outcome -> outcome.status() == PostingStatus.APPLIED ? outcome.aborted() : outcome)
+                    .toList();
+        }
+
+        if (!transactions.isEmpty()) {
+            List<BankAccountSnapshot> changed = accounts.values().stream()
+                    .filter(account -> postingCounts.containsKey(account.id()))
+                    .toList();
+            postingRepository.applyBalances(deltas, postingCounts, postedAt);
+            postingRepository.insertTransactions(transactions);
+            bankAccountCache.putAllAfterCommit(changed);
+            outboxRepository.appendAll(outcomes.stream()
+                    .filter(outcome -> outcome.status() == PostingStatus.APPLIED)
+                    .map(outcome -> AccountEventDto.posted(outcome.request().accountId(), outcome.request().type(),
+                            outcome.request().amount(), outcome.account()))
+                    .toList());
+        }
+        return outcomes;
+    }
 
-            BankAccount updated = builder.build();
-            return bankAccountRepository.save(updated);
+    public Optional<BankAccountSnapshot> updateBankAccount(String accountId, BankAccountUpdate update) {
+        return updateBankAccount(accountId, update, null);
+    }
+
+    // One UPDATE of the changed columns, with the version check in its WHERE clause. Only setting the balance
+    // reads first, to lock the sub-balances it is split across; the base row holds the rest.
+    public Optional<BankAccountSnapshot> updateBankAccount(String accountId, BankAccountUpdate update, Long expectedVersion) {
+        if (update.isEmpty()) {
+            Optional<BankAccountSnapshot> current = findBankAccountByAccountId(accountId).map(BankAccountSnapshot::of);
+            if (current.isPresent() && expectedVersion != null && expectedVersion != current.get().version()) {
+                throw new PreconditionFailedException();
+            }
+            return current;
+        }
+        BankAccountUpdate baseUpdate = update.balance() == null ? update : update.toBuilder()
+                .balance(update.balance() - Money.toMinorUnits(stripeRepository.lockStripedBalance(accountId)))
+                .build();
+        Optional<BankAccountSnapshot> updated = postingRepository.updateBankAccount(accountId, baseUpdate, expectedVersion);
+        if (updated.isEmpty() && expectedVersion != null && bankAccountRepository.existsByAccountId(accountId)) {
+            throw new PreconditionFailedException();
+        }
+        updated.ifPresent(account -> {
+            bankAccountCache.putAfterCommit(account);
+            outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_UPDATED, account));
         });
+        return updated;
+    }
+
+    // One chunk of a bulk activation, in one transaction. Accounts already in the requested state are in neither list.
+    public ActivationOutcome setActive(Collection<String> accountIds, boolean active) {
+        List<String> updated = postingRepository.setActive(accountIds, active).stream()
+                .map(AccountKey::accountId)
+                .toList();
+        bankAccountCache.evictAllAfterCommit(updated);
+        appendActivationEvents(updated, active);
+        return new ActivationOutcome(updated, postingRepository.findMissingAccountIds(accountIds));
     }
 
+    public List<AccountKey> setActiveWhereInactiveSince(LocalDateTime since, boolean active, long afterId, int limit) {
+        List<AccountKey> updated = postingRepository.setActiveWhereInactiveSince(since, active, afterId, limit);
+        List<String> accountIds = updated.stream().map(AccountKey::accountId).toList();
+        bankAccountCache.evictAllAfterCommit(accountIds);
+        appendActivationEvents(accountIds, active);
+        return updated;
+    }
+
+    // Only hides the account; BankAccountPurger removes its history and the row in the background.
     public void deleteBankAccountByAccountId(String accountId) {
-        bankAccountRepository.deleteByAccountId(accountId);
+        if (bankAccountRepository.markDeletedByAccountId(accountId) > 0) {
+            outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_DELETED, accountId));
+        }
+        bankAccountCache.evictAfterCommit(accountId);
+    }
+
+    private void appendActivationEvents(List<String> accountIds, boolean active) {
+        OutboxEventType type = active ? OutboxEventType.ACCOUNT_ACTIVATED : OutboxEventType.ACCOUNT_DEACTIVATED;
+        outboxRepository.appendAll(accountIds.stream().map(accountId -> AccountEventDto.of(type, accountId)).toList());
     }
 }
@@ -0,0 +1,109 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.OutboxEvent;
+import com.ml.testsexamples.messaging.OutboxPublisher;
+import com.ml.testsexamples.repositories.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Drains the outbox to the broker, oldest event first. Each batch is read, published, confirmed and deleted in
+// one transaction holding the relay lock, so only one relay runs at a time and a batch that fails to publish
+// stays in the outbox and is published again: delivery is at least once, in outbox order. A full batch is
+// followed by the next one right away; otherwise the relay waits poll-interval.
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollMillis;
+    private final OutboxRepository outboxRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Autowired
+    public OutboxRelay(@Value("${bank-account.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${bank-account.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${bank-account.outbox.relay.poll-interval:100ms}") Duration pollInterval,
+                       OutboxRepository outboxRepository,
+                       OutboxPublisher publisher,
+                       PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollMillis = pollInterval.toMillis();
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "outbox-relay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    // Returns the number of events published; 0 when the outbox is empty or another relay holds the lock.
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            if (!outboxRepository.tryLockRelay()) {
+                return 0;
+            }
+            List<OutboxEvent> events = outboxRepository.findNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            publisher.publish(events);
+            outboxRepository.delete(events.stream().map(OutboxEvent::getId).toList());
+            return events.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int relayed;
+                try {
+                    relayed = relayBatch();
+                } catch (RuntimeException e) {
+                    log.error("OutboxRelay.run() - failed to relay outbox events, retrying later", e);
+                    relayed = 0;
+                }
+                if (relayed < batchSize) {
+                    Thread.sleep(pollMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.PostingStatus;
+import com.ml.testsexamples.requests.PostingRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// Serializes postings per account through mailboxes striped by accountId. Whichever caller finds its
+// stripe idle drains the queued postings and applies them through the PostingGroupCommitter, so postings
+// that piled up for one account become a single balance update plus one batched insert. The other
+// callers park until their own outcome is published or until the stripe is handed over to them.
+@Slf4j
+@Component
+public class PostingCoalescer {
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Stripe[] stripes;
+    private final PostingGroupCommitter postingGroupCommitter;
+
+    @Autowired
+    public PostingCoalescer(@Value("${bank-account.posting.coalescing.enabled:true}") boolean enabled,
+                            @Value("${bank-account.posting.coalescing.stripes:64}") int stripes,
+                            @Value("${bank-account.posting.coalescing.max-batch-size:128}") int maxBatchSize,
+                            PostingGroupCommitter postingGroupCommitter) {
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.postingGroupCommitter = postingGroupCommitter;
+    }
+
+    public static PostingCoalescer disabled() {
+        return new PostingCoalescer(false, 1, 1, null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BankAccountSnapshot post(PostingRequest posting) {
+        Stripe stripe = stripeOf(posting.accountId());
+        PendingPosting pending = new PendingPosting(posting, Thread.currentThread());
+        stripe.queue.add(pending);
+
+        boolean interrupted = false;
+        while (!pending.isDone()) {
+            if (stripe.draining.compareAndSet(false, true)) {
+                try {
+                    applyNextBatch(stripe);
+                } finally {
+                    stripe.draining.set(false);
+                    handOver(stripe);
+                }
+            } else {
+                LockSupport.park(this);
+                // A queued posting may already be in a batch, so an interrupt cannot withdraw it. Clear the flag so
+                // park keeps blocking, and restore it once the outcome is known.
+                interrupted |= Thread.interrupted();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return pending.result();
+    }
+
+    private void applyNextBatch(Stripe stripe) {
+        List<PendingPosting> batch = new ArrayList<>(Math.min(maxBatchSize, 16));
+        PendingPosting next;
+        while (batch.size() < maxBatchSize && (next = stripe.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<PostingOutcome> outcomes = postingGroupCommitter.apply(batch.stream().map(PendingPosting::posting).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(outcomes.get(i), null);
+            }
+        } catch (RuntimeException e) {
+            log.error("PostingCoalescer.applyNextBatch(stripe) - failed to apply coalesced postings. size: {}", batch.size(), e);
+            batch.forEach(pending -> pending.complete(null, e));
+        }
+    }
+
+    // Wakes the caller at the head of the queue so a posting enqueued while the stripe was busy is never stranded.
+    private void handOver(Stripe stripe) {
+        PendingPosting head = stripe.queue.peek();
+        if (head != null) {
+            LockSupport.unpark(head.waiter);
+        }
+    }
+
+    private Stripe stripeOf(String accountId) {
+        int hash = accountId.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private static final class Stripe {
+        private final Queue<PendingPosting> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private static final class PendingPosting {
+        private final PostingRequest posting;
+        private final Thread waiter;
+        private volatile PostingOutcome outcome;
+        private volatile RuntimeException failure;
+        private volatile boolean done;
+
+        private PendingPosting(PostingRequest posting, Thread waiter) {
+            this.posting = posting;
+            this.waiter = waiter;
+        }
+
+        private PostingRequest posting() {
+            return posting;
+        }
+
+        private boolean isDone() {
+            return done;
+        }
+
+        private void complete(PostingOutcome outcome, RuntimeException failure) {
+            this.outcome = outcome;
+            this.failure = failure;
+            this.done = true;
+            LockSupport.unpark(waiter);
+        }
+
+        private BankAccountSnapshot result() {
+            if (failure != null) {
+                throw failure;
+            }
+            if (outcome.status() != PostingStatus.APPLIED) {
+                throw outcome.error();
+            }
+            return outcome.account();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.requests.PostingRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Collects the posting batches of different accounts that arrive within a short window and applies them
+// in one DB transaction, so one WAL flush covers many callers. Callers are released only after the shared
+// commit. Rejections are already isolated per item by BEST_EFFORT; if the shared transaction itself fails,
+// every batch is retried in its own transaction so only the failing one reports the error.
+@Slf4j
+@Component
+public class PostingGroupCommitter {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxItems;
+    private final DataFacade dataFacade;
+    private final BlockingQueue<PendingGroup> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Autowired
+    public PostingGroupCommitter(@Value("${bank-account.posting.group-commit.enabled:true}") boolean enabled,
+                                 @Value("${bank-account.posting.group-commit.window:2ms}") Duration window,
+                                 @Value("${bank-account.posting.group-commit.max-items:512}") int maxItems,
+                                 DataFacade dataFacade) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxItems = maxItems;
+        this.dataFacade = dataFacade;
+    }
+
+    public static PostingGroupCommitter disabled(DataFacade dataFacade) {
+        return new PostingGroupCommitter(false, Duration.ZERO, 1, dataFacade);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "posting-group-committer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        List<PendingGroup> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        commit(remaining);
+    }
+
+    public List<PostingOutcome> apply(List<PostingRequest> postings) {
+        if (!running) {
+            return dataFacade.applyPostings(postings, BatchMode.BEST_EFFORT);
+        }
+        PendingGroup group = new PendingGroup(postings);
+        queue.add(group);
+        // stop() may have drained the queue between the check and the add. A group still queued after that will
+        // never be taken, so it is applied here; one already taken is completed by whoever took it.
+        if (!running && queue.remove(group)) {
+            return dataFacade.applyPostings(postings, BatchMode.BEST_EFFORT);
+        }
+        try {
+            return group.outcomes.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<PendingGroup> groups = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingGroup first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                groups.add(first);
+                int items = first.postings.size();
+                long deadline = System.nanoTime() + windowNanos;
+                while (items < maxItems) {
+                    PendingGroup next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    groups.add(next);
+                    items += next.postings.size();
+                }
+                commit(groups);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                commit(groups);
+                return;
+            } finally {
+                groups.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingGroup> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<PostingRequest> postings = new ArrayList<>();
+        groups.forEach(group -> postings.addAll(group.postings));
+        try {
+            List<PostingOutcome> outcomes = dataFacade.applyPostings(postings, BatchMode.BEST_EFFORT);
+            int offset = 0;
+            for (PendingGroup group : groups) {
+                group.outcomes.complete(outcomes.subList(offset, offset + group.postings.size()));
+                offset += group.postings.size();
+            }
+        } catch (RuntimeException e) {
+            log.warn("PostingGroupCommitter.commit(groups) - group commit failed, applying batches one by one. groups: {}, postings: {}",
+                    groups.size(), postings.size(), e);
+            for (PendingGroup group : groups) {
+                try {
+                    group.outcomes.complete(dataFacade.applyPostings(group.postings, BatchMode.BEST_EFFORT));
+                } catch (RuntimeException groupFailure) {
+                    group.outcomes.completeExceptionally(groupFailure);
+                }
+            }
+        }
+    }
+
+    private record PendingGroup(List<PostingRequest> postings, CompletableFuture<List<PostingOutcome>> outcomes) {
+        private PendingGroup(List<PostingRequest> postings) {
+            this(postings, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.PostingStatus;
+import com.ml.testsexamples.requests.PostingRequest;
+
+public record PostingOutcome(
+        PostingRequest request,
+        PostingStatus status,
+        BankAccountSnapshot account,
+        RuntimeException error) {
+
+    public static PostingOutcome applied(PostingRequest request, BankAccountSnapshot account) {
+        return new PostingOutcome(request, PostingStatus.APPLIED, account, null);
+    }
+
+    public static PostingOutcome rejected(PostingRequest request, RuntimeException error) {
+        return new PostingOutcome(request, PostingStatus.REJECTED, null, error);
+    }
+
+    public PostingOutcome aborted() {
+        return new PostingOutcome(request, PostingStatus.ABORTED, null, null);
+    }
+}
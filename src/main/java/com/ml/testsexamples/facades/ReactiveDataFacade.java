@@ -0,0 +1,106 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.AccountEventDto;
+import com.ml.testsexamples.dto.TransactionCursor;
+import com.ml.testsexamples.enums.OutboxEventType;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.repositories.ReactiveBankAccountPostingRepository;
+import com.ml.testsexamples.repositories.ReactiveBankAccountRepository;
+import com.ml.testsexamples.repositories.ReactiveOutboxRepository;
+import com.ml.testsexamples.repositories.ReactiveTransactionRepository;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDataFacade {
+    private final ReactiveBankAccountRepository bankAccountRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveBankAccountPostingRepository postingRepository;
+    private final ReactiveOutboxRepository outboxRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+
+    public Flux<BankAccountSnapshot> findAllBankAccounts() {
+        return postingRepository.findAllBankAccounts();
+    }
+
+    public Mono<BankAccountSnapshot> findBankAccountByAccountId(String accountId) {
+        return postingRepository.findBankAccountByAccountId(accountId);
+    }
+
+    public Flux<Transaction> findTransactions(Long bankAccountId) {
+        return transactionRepository.findByBankAccountIdOrderByCreatedAtAscIdAsc(bankAccountId);
+    }
+
+    public Mono<BankAccountSnapshot> saveBankAccount(BankAccount bankAccount) {
+        return postingRepository.insertBankAccount(bankAccount)
+                .flatMap(account -> outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_CREATED, account))
+                        .thenReturn(account))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Flux<Transaction> findTransactionsPage(Long bankAccountId, TransactionHistoryRequest filter, TransactionCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("bankAccountId").is(bankAccountId);
+        if (filter.type() != null) {
+            criteria = criteria.and("type").is(filter.type().name());
+        }
+        if (filter.minAmount() != null) {
+            criteria = criteria.and("amount").greaterThanOrEquals(filter.minAmount());
+        }
+        if (filter.maxAmount() != null) {
+            criteria = criteria.and("amount").lessThanOrEquals(filter.maxAmount());
+        }
+        if (filter.from() != null) {
+            criteria = criteria.and("createdAt").greaterThanOrEquals(filter.from());
+        }
+        if (filter.to() != null) {
+            criteria = criteria.and("createdAt").lessThan(filter.to());
+        }
+        if (cursor != null) {
+            criteria = criteria.and("createdAt").lessThanOrEquals(cursor.createdAt())
+                    .and(Criteria.where("createdAt").lessThan(cursor.createdAt())
+                    .or(Criteria.where("createdAt").is(cursor.createdAt()).and("id").lessThan(cursor.id())));
+        }
+        Query query = Query.query(criteria)
+                .sort(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(limit);
+        return entityTemplate.select(Transaction.class).matching(query).all();
+    }
+
+    public Mono<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type) {
+        return postingRepository.postTransaction(accountId, amount, type)
+                .flatMap(account -> outboxRepository.append(AccountEventDto.posted(accountId, type, amount, account))
+                        .thenReturn(account))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<BankAccountSnapshot> updateBankAccount(String accountId, BankAccountUpdate update) {
+        return Mono.defer(() -> postingRepository.updateBankAccount(accountId, update))
+                .flatMap(account -> outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_UPDATED, account))
+                        .thenReturn(account))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> deleteBankAccountByAccountId(String accountId) {
+        return bankAccountRepository.markDeletedByAccountId(accountId)
+                .filter(deleted -> deleted > 0)
+                .flatMap(deleted -> outboxRepository.append(AccountEventDto.of(OutboxEventType.ACCOUNT_DELETED, accountId)))
+                .then(postingRepository.notifyCaches(accountId))
+                .as(transactionalOperator::transactional);
+    }
+}
@@ -1,8 +1,10 @@
 package com.ml.testsexamples.mappers;
 
 import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
 import com.ml.testsexamples.dao.Transaction;
 import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
 import com.ml.testsexamples.dto.TransactionDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -17,14 +19,36 @@ import java.util.stream.Collectors;
 public interface BankAccountMapper {
     BankAccountMapper INSTANCE = Mappers.getMapper(BankAccountMapper.class);
 
+    @Mapping(target = "balance", source = "totalBalance")
     BankAccountDto toDto(BankAccount bankAccount);
 
+    @Mapping(target = "balance", source = "totalBalance")
+    @Mapping(target = "transactionCount", source = "totalTransactionCount")
+    @Mapping(target = "lastActivityAt", source = "latestActivityAt")
+    BankAccountSummaryDto toSummaryDto(BankAccount bankAccount);
+
+    BankAccountSummaryDto toSummaryDto(BankAccountSnapshot bankAccountSnapshot);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "transactions", ignore = true)
+    @Mapping(target = "transactionCount", ignore = true)
+    @Mapping(target = "lastActivityAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "balanceStripes", ignore = true)
+    @Mapping(target = "stripedBalance", ignore = true)
+    @Mapping(target = "stripedTransactionCount", ignore = true)
+    @Mapping(target = "stripedLastActivityAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     BankAccount toDao(BankAccountDto bankAccountDto);
 
+    default BankAccountDto toDto(BankAccountSnapshot bankAccountSnapshot, List<Transaction> transactions) {
+        return new BankAccountDto(bankAccountSnapshot.accountId(), bankAccountSnapshot.firstName(), bankAccountSnapshot.lastName(),
+                bankAccountSnapshot.balance(), bankAccountSnapshot.minimumBalance(), bankAccountSnapshot.active(),
+                mapTransactions(transactions));
+    }
+
     default List<TransactionDto> mapTransactions(List<Transaction> transactions) {
         return Optional.ofNullable(transactions)
                 .map(transactionsList -> transactionsList.stream()
@@ -0,0 +1,11 @@
+package com.ml.testsexamples.messaging;
+
+import com.ml.testsexamples.dao.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxPublisher {
+
+    // Publishes the events in order and returns only once the broker has confirmed all of them; throws otherwise.
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,101 @@
+package com.ml.testsexamples.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dto.PostingResultDto;
+import com.ml.testsexamples.enums.PostingStatus;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.services.BankAccountService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Posting commands from the queue, in the JSON of the REST batch postings. Each batch of messages is applied with
+// one BankAccountService.postEach call and every message gets a reply with its PostingResultDto, on its replyTo
+// queue or the default reply queue, correlated by its correlation id or else its message id. A message that
+// cannot be read is answered as rejected. The message id is stored as the idempotency key of the posted
+// transaction, so a message redelivered after its batch committed, e.g. because the ack was lost, is answered
+// as applied instead of being posted again. If applying the batch or sending its replies fails, the listener
+// throws and the batch is retried, then dead-lettered (see MessagingConfig). A batch whose replies failed was
+// already committed; its retry is answered through the message ids rather than posted again.
+@Slf4j
+@Component
+public class PostingCommandListener {
+
+    private static final String MALFORMED_POSTING = "Malformed posting";
+    // Keeps message ids apart from the Idempotency-Key values of REST clients, which share the same unique index.
+    private static final String MESSAGE_ID_KEY_PREFIX = "message:";
+
+    private final BankAccountService bankAccountService;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final String replyQueue;
+
+    @Autowired
+    public PostingCommandListener(BankAccountService bankAccountService,
+                                  RabbitTemplate rabbitTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${bank-account.ingest.reply-queue:bank-account.posting-replies}") String replyQueue) {
+        this.bankAccountService = bankAccountService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.replyQueue = replyQueue;
+    }
+
+    @RabbitListener(id = "posting-commands",
+            queues = "${bank-account.ingest.queue:bank-account.postings}",
+            containerFactory = "postingCommandContainerFactory",
+            autoStartup = "${bank-account.ingest.enabled:false}")
+    public void onPostings(List<Message> messages) {
+        log.info("PostingCommandListener.onPostings(messages) - apply posting commands from the queue. size: {}", messages.size());
+        List<PostingResultDto> results = new ArrayList<>(messages.size());
+        List<PostingRequest> postings = new ArrayList<>(messages.size());
+        List<String> idempotencyKeys = new ArrayList<>(messages.size());
+        List<Integer> positions = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                postings.add(objectMapper.readValue(message.getBody(), PostingRequest.class));
+                idempotencyKeys.add(idempotencyKey(message.getMessageProperties()));
+                positions.add(results.size());
+                results.add(null);
+            } catch (IOException | RuntimeException e) {
+                results.add(new PostingResultDto(null, null, null, PostingStatus.REJECTED, MALFORMED_POSTING, null));
+            }
+        }
+        if (!postings.isEmpty()) {
+            List<PostingResultDto> applied = bankAccountService.postEach(postings, idempotencyKeys);
+            for (int i = 0; i < applied.size(); i++) {
+                results.set(positions.get(i), applied.get(i));
+            }
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            reply(messages.get(i).getMessageProperties(), results.get(i));
+        }
+    }
+
+    private static String idempotencyKey(MessageProperties properties) {
+        return properties.getMessageId() == null ? null : MESSAGE_ID_KEY_PREFIX + properties.getMessageId();
+    }
+
+    private void reply(MessageProperties request, PostingResultDto result) {
+        try {
+            Message reply = MessageBuilder.withBody(objectMapper.writeValueAsBytes(result))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setCorrelationId(request.getCorrelationId() != null ? request.getCorrelationId() : request.getMessageId())
+                    .build();
+            rabbitTemplate.send("", request.getReplyTo() != null ? request.getReplyTo() : replyQueue, reply);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize posting reply", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ml.testsexamples.messaging;
+
+import com.ml.testsexamples.dao.OutboxEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+// Sends a whole batch on one channel and waits once for the broker to confirm it, instead of a round trip per
+// message. Needs spring.rabbitmq.publisher-confirm-type: simple. The outbox id is the message id, so consumers
+// can drop the duplicates that at-least-once delivery allows.
+@Component
+public class RabbitOutboxPublisher implements OutboxPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final long confirmTimeoutMillis;
+
+    @Autowired
+    public RabbitOutboxPublisher(RabbitTemplate rabbitTemplate,
+                                 @Value("${bank-account.outbox.exchange:bank-account.events}") String exchange,
+                                 @Value("${bank-account.outbox.relay.confirm-timeout:5s}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        rabbitTemplate.invoke(operations -> {
+            events.forEach(event -> operations.send(exchange, event.getType().routingKey(), toMessage(event)));
+            operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+            return null;
+        });
+    }
+
+    private static Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(event.getId()))
+                .setType(event.getType().name())
+                .setHeader("accountId", event.getAccountId())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.requests.BankAccountImportRow;
+import com.ml.testsexamples.utils.Money;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Bulk import in one transaction: a staging table private to the transaction, a COPY of
+// every row into it, and one upsert from it into bank_account. COPY streams the rows in a single round trip and
+// the staging table is never logged, so the import costs about as much as the upsert itself.
+@Repository
+@RequiredArgsConstructor
+public class BankAccountImportRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // line keeps the input order, so the last line wins when an account appears more than once.
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE bank_account_import
+            (
+                line            BIGINT GENERATED ALWAYS AS IDENTITY,
+                account_id      VARCHAR(255),
+                first_name      VARCHAR(255),
+                last_name       VARCHAR(255),
+                balance         NUMERIC(10, 2),
+                minimum_balance NUMERIC(10, 2)
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_INTO_STAGING_TABLE = """
+            COPY bank_account_import (account_id, first_name, last_name, balance, minimum_balance)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    // New accounts are created inactive, as POST /api/v1/bank-accounts does by default. Existing accounts get
+    // their names and minimum balance; their balance only ever changes through postings. Accounts deleted but
+    // not purged yet still hold their account id and are left alone. Every account written is returned with its
+    // sub-balance totals, like single-account updates answer.
+    private static final String UPSERT_FROM_STAGING_TABLE = """
+            WITH upserted AS (
+                INSERT INTO bank_account (id, account_id, first_name, last_name, balance, minimum_balance, active,
+                                          transaction_count, created_at, updated_at, version)
+                SELECT nextval('bank_account_id_sequence'), account_id, first_name, last_name, balance, minimum_balance,
+                       false, 0, now(), now(), 0
+                FROM (SELECT DISTINCT ON (account_id) account_id, first_name, last_name, balance, minimum_balance
+                      FROM bank_account_import
+                      ORDER BY account_id, line DESC) latest
+                ON CONFLICT (account_id) DO UPDATE
+                    SET first_name      = EXCLUDED.first_name,
+                        last_name       = EXCLUDED.last_name,
+                        minimum_balance = EXCLUDED.minimum_balance,
+                        updated_at      = EXCLUDED.updated_at,
+                        version         = bank_account.version + 1
+                    WHERE bank_account.deleted_at IS NULL
+                RETURNING *, xmax = 0 AS inserted
+            )
+            SELECT totals.*, upserted.inserted
+            FROM (
+            """ + BankAccountPostingRepository.SELECT_WITH_STRIPE_TOTALS_TEMPLATE.formatted("upserted") + """
+            ) totals
+            JOIN upserted ON upserted.id = totals.id
+            ORDER BY totals.account_id
+            """;
+
+    // Run after the upsert, when every staged account exists unless it was deleted.
+    private static final String COUNT_DELETED_ACCOUNT_LINES = """
+            SELECT count(*) FROM bank_account_import i
+            WHERE NOT EXISTS (SELECT 1 FROM bank_account
+                              WHERE account_id = i.account_id
+                                AND deleted_at IS NULL)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public record UpsertResult(List<BankAccountSnapshot> inserted, List<BankAccountSnapshot> updated) {
+    }
+
+    public void createStagingTable() {
+        jdbcTemplate.getJdbcOperations().execute(CREATE_STAGING_TABLE);
+    }
+
+    // Returns the number of rows copied. Runs on the connection of the current transaction.
+    public long copyIntoStagingTable(Iterator<BankAccountImportRow> rows) {
+        Long copied = jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_INTO_STAGING_TABLE);
+            try {
+                Writer writer = new OutputStreamWriter(new PGCopyOutputStream(copyIn, COPY_BUFFER_SIZE), StandardCharsets.UTF_8);
+                while (rows.hasNext()) {
+                    writeCsvRow(writer, rows.next());
+                }
+                writer.flush();
+                return copyIn.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+
+    public UpsertResult upsertFromStagingTable() {
+        List<BankAccountSnapshot> inserted = new ArrayList<>();
+        List<BankAccountSnapshot> updated = new ArrayList<>();
+        jdbcTemplate.getJdbcOperations().query(UPSERT_FROM_STAGING_TABLE, (RowCallbackHandler) rs -> {
+            BankAccountSnapshot account = BankAccountPostingRepository.SNAPSHOT_ROW_MAPPER.mapRow(rs, rs.getRow());
+            (rs.getBoolean("inserted") ? inserted : updated).add(account);
+        });
+        return new UpsertResult(inserted, updated);
+    }
+
+    // Counts the staged lines of accounts deleted but not purged yet, which the upsert left alone.
+    public long countDeletedAccountLines() {
+        Long lines = jdbcTemplate.getJdbcOperations().queryForObject(COUNT_DELETED_ACCOUNT_LINES, Long.class);
+        return lines == null ? 0 : lines;
+    }
+
+    private static void writeCsvRow(Writer writer, BankAccountImportRow row) throws IOException {
+        writeQuoted(writer, row.accountId());
+        writer.write(',');
+        writeQuoted(writer, row.firstName());
+        writer.write(',');
+        writeQuoted(writer, row.lastName());
+        writer.write(',');
+        writer.write(Money.toBigDecimal(row.balance()).toPlainString());
+        writer.write(',');
+        writer.write(Money.toBigDecimal(row.minimumBalance()).toPlainString());
+        writer.write('\n');
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,347 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.utils.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class BankAccountPostingRepository {
+
+    // Applies the balance delta, enforces 'active' and 'minimum_balance' and inserts the transaction row
+    // in a single statement. Deposits are never rejected because of the minimum balance.
+    private static final String POST_TRANSACTION_TEMPLATE = """
+            WITH updated AS (
+                UPDATE bank_account
+                SET balance = balance + :delta,
+                    transaction_count = transaction_count + 1,
+                    last_activity_at = now(),
+                    updated_at = now(),
+                    version = version + 1
+                WHERE account_id = :accountId
+                  AND deleted_at IS NULL
+                  AND active %s
+                  AND (:delta >= 0 OR %s + :delta >= minimum_balance)
+                RETURNING *
+            ), posted AS (
+                INSERT INTO transaction (id, bank_account_id, amount, type, created_at, idempotency_key)
+                SELECT nextval('transaction_id_sequence'), id, :amount, :type, now(), :idempotencyKey
+                FROM updated
+            )
+            """;
+
+    static final String POST_UNSTRIPED_TRANSACTION = POST_TRANSACTION_TEMPLATE.formatted("AND balance_stripes = 0", "balance")
+            + "SELECT * FROM updated";
+
+    // Reads accounts with their sub-balances folded in, under the column names SNAPSHOT_ROW_MAPPER expects.
+    static final String SELECT_WITH_STRIPE_TOTALS_TEMPLATE = """
+            SELECT ba.id, ba.account_id, ba.first_name, ba.last_name,
+                   ba.balance + coalesce(s.balance, 0) AS balance,
+                   ba.minimum_balance, ba.active,
+                   ba.transaction_count + coalesce(s.transaction_count, 0) AS transaction_count,
+                   greatest(ba.last_activity_at, s.last_activity_at) AS last_activity_at,
+                   ba.created_at, ba.updated_at,
+                   ba.version + coalesce(s.transaction_count, 0) AS version,
+                   ba.balance_stripes
+            FROM %s ba
+            LEFT JOIN LATERAL (
+                SELECT sum(balance) AS balance, sum(transaction_count)::bigint AS transaction_count,
+                       max(last_activity_at) AS last_activity_at
+                FROM bank_account_balance_stripe
+                WHERE bank_account_id = ba.id
+            ) s ON true
+            """;
+
+    static final String SELECT_WITH_STRIPE_TOTALS = SELECT_WITH_STRIPE_TOTALS_TEMPLATE.formatted("bank_account");
+
+    // Posts to the base row of any account and answers with its totals, checking the minimum against the base row
+    // plus the sub-balances. The caller must already hold the row lock that striped withdrawals take, so that the
+    // statement's snapshot sees the sub-balances they left behind.
+    static final String POST_TO_BASE_WITH_STRIPE_TOTALS = POST_TRANSACTION_TEMPLATE.formatted("", """
+            (balance + (SELECT coalesce(sum(balance), 0) FROM bank_account_balance_stripe
+                        WHERE bank_account_id = bank_account.id))""")
+            + SELECT_WITH_STRIPE_TOTALS_TEMPLATE.formatted("updated");
+
+    // Sets only the changed columns, so no prior read is needed. The totals are computed from the updated row.
+    private static final String UPDATE_BANK_ACCOUNT_TEMPLATE = """
+            WITH updated AS (
+                UPDATE bank_account
+                SET %s
+                    updated_at = statement_timestamp(),
+                    version = version + 1
+                WHERE account_id = :accountId
+                  AND deleted_at IS NULL %s
+                RETURNING *
+            )
+            """ + SELECT_WITH_STRIPE_TOTALS_TEMPLATE.formatted("updated");
+
+    // Compares against the version handed out in ETags, which counts striped postings on top of the row's own.
+    private static final String EXPECTED_VERSION_CONDITION = """
+            AND version + (SELECT coalesce(sum(transaction_count), 0) FROM bank_account_balance_stripe
+                           WHERE bank_account_id = bank_account.id) = :expectedVersion""";
+
+    // NO KEY UPDATE still lets striped deposits, which only take KEY SHARE, add to sub-balances meanwhile.
+    private static final String LOCK_BANK_ACCOUNTS = """
+            SELECT id FROM bank_account
+            WHERE account_id = ANY(?)
+              AND deleted_at IS NULL
+            ORDER BY id
+            FOR NO KEY UPDATE
+            """;
+
+    private static final String FIND_BANK_ACCOUNTS_WITH_STRIPE_TOTALS = SELECT_WITH_STRIPE_TOTALS + """
+            WHERE ba.id = ANY(?)
+            """;
+
+    private static final String APPLY_BALANCES = """
+            UPDATE bank_account ba
+            SET balance = ba.balance + posted.delta,
+                transaction_count = ba.transaction_count + posted.count,
+                last_activity_at = ?,
+                updated_at = ?,
+                version = ba.version + posted.count
+            FROM unnest(?::bigint[], ?::numeric[], ?::integer[]) AS posted(id, delta, count)
+            WHERE ba.id = posted.id
+            """;
+
+    // Rows are locked in primary key order, like batch postings, before any of them is written. Accounts already
+    // in the requested state are not written, so their version does not move.
+    private static final String SET_ACTIVE = """
+            WITH locked AS (
+                SELECT id FROM bank_account
+                WHERE account_id = ANY(?)
+                  AND deleted_at IS NULL
+                  AND active <> ?
+                ORDER BY id
+                FOR NO KEY UPDATE
+            )
+            UPDATE bank_account ba
+            SET active = ?,
+                updated_at = statement_timestamp(),
+                version = ba.version + 1
+            FROM locked
+            WHERE ba.id = locked.id
+            RETURNING ba.id, ba.account_id
+            """;
+
+    private static final String FIND_MISSING_ACCOUNT_IDS = """
+            SELECT requested.account_id FROM unnest(?::varchar[]) AS requested(account_id)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM bank_account ba
+                WHERE ba.account_id = requested.account_id
+                  AND ba.deleted_at IS NULL
+            )
+            """;
+
+    // Takes the next chunk, by primary key, of accounts without a posting since the given time, counting
+    // postings to sub-balances too. Accounts that never had a posting count from their creation.
+    private static final String SET_ACTIVE_WHERE_INACTIVE_SINCE = """
+            WITH locked AS (
+                SELECT id FROM bank_account b
+                WHERE b.id > :afterId
+                  AND b.deleted_at IS NULL
+                  AND b.active <> :active
+                  AND coalesce(b.last_activity_at, b.created_at) < :since
+                  AND NOT EXISTS (
+                      SELECT 1 FROM bank_account_balance_stripe s
+                      WHERE s.bank_account_id = b.id
+                        AND s.last_activity_at >= :since
+                  )
+                ORDER BY b.id
+                LIMIT :limit
+                FOR NO KEY UPDATE
+            )
+            UPDATE bank_account ba
+            SET active = :active,
+                updated_at = statement_timestamp(),
+                version = ba.version + 1
+            FROM locked
+            WHERE ba.id = locked.id
+            RETURNING ba.id, ba.account_id
+            """;
+
+    private static final RowMapper<AccountKey> ACCOUNT_KEY_ROW_MAPPER = (rs, rowNum) -> new AccountKey(
+            rs.getLong("id"),
+            rs.getString("account_id"));
+
+    private static final String INSERT_TRANSACTION = """
+            INSERT INTO transaction (id, bank_account_id, amount, type, created_at, idempotency_key)
+            VALUES (nextval('transaction_id_sequence'), ?, ?, ?, ?, ?)
+            """;
+
+    private static final String RECORD_ACTIVITY = """
+            UPDATE bank_account
+            SET transaction_count = transaction_count + :count,
+                last_activity_at = :activityAt,
+                version = version + 1
+            WHERE id = :id
+            RETURNING account_id
+            """;
+
+    static final RowMapper<BankAccountSnapshot> SNAPSHOT_ROW_MAPPER = (rs, rowNum) -> new BankAccountSnapshot(
+            rs.getLong("id"),
+            rs.getString("account_id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getBigDecimal("balance"),
+            rs.getBigDecimal("minimum_balance"),
+            rs.getBoolean("active"),
+            rs.getLong("transaction_count"),
+            rs.getObject("last_activity_at", LocalDateTime.class),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class),
+            rs.getLong("version"),
+            rs.getInt("balance_stripes"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // A key already stored with another transaction fails the whole statement with a DuplicateKeyException.
+    public Optional<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type, String idempotencyKey) {
+        long delta = type == TransactionType.DEPOSIT ? amount : -amount;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("delta", Money.toBigDecimal(delta))
+                .addValue("amount", Money.toBigDecimal(amount))
+                .addValue("type", type.name())
+                .addValue("idempotencyKey", idempotencyKey);
+        return jdbcTemplate.query(POST_UNSTRIPED_TRANSACTION, params, SNAPSHOT_ROW_MAPPER).stream().findFirst();
+    }
+
+    // Empty when no account matched, which includes a version other than the expected one.
+    public Optional<BankAccountSnapshot> updateBankAccount(String accountId, BankAccountUpdate update, Long expectedVersion) {
+        Map<String, Object> columns = changedColumns(update);
+        String sql = updateBankAccountSql(columns.keySet(), expectedVersion != null);
+        MapSqlParameterSource params = new MapSqlParameterSource(columns)
+                .addValue("accountId", accountId)
+                .addValue("expectedVersion", expectedVersion);
+        return jdbcTemplate.query(sql, params, SNAPSHOT_ROW_MAPPER).stream().findFirst();
+    }
+
+    // Binds :accountId, a parameter per changed column and, when a version is expected, :expectedVersion.
+    static String updateBankAccountSql(Collection<String> columns, boolean expectVersion) {
+        StringBuilder assignments = new StringBuilder();
+        columns.forEach(column -> assignments.append(column).append(" = :").append(column).append(", "));
+        return UPDATE_BANK_ACCOUNT_TEMPLATE.formatted(assignments, expectVersion ? EXPECTED_VERSION_CONDITION : "");
+    }
+
+    // Always in the same column order, so each combination of changed columns maps to one statement text.
+    static Map<String, Object> changedColumns(BankAccountUpdate update) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (update.firstName() != null) {
+            columns.put("first_name", update.firstName());
+        }
+        if (update.lastName() != null) {
+            columns.put("last_name", update.lastName());
+        }
+        if (update.balance() != null) {
+            columns.put("balance", Money.toBigDecimal(update.balance()));
+        }
+        if (update.minimumBalance() != null) {
+            columns.put("minimum_balance", Money.toBigDecimal(update.minimumBalance()));
+        }
+        if (update.active() != null) {
+            columns.put("active", update.active());
+        }
+        return columns;
+    }
+
+    public String recordActivity(Long id, long count, LocalDateTime activityAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("count", count)
+                .addValue("activityAt", activityAt);
+        return jdbcTemplate.queryForObject(RECORD_ACTIVITY, params, String.class);
+    }
+
+    // Rows are locked in primary key order so that concurrent batches touching the same accounts cannot deadlock.
+    // The totals are read by a second statement so that its snapshot includes everything committed before the locks.
+    public List<BankAccountSnapshot> lockBankAccounts(Collection<String> accountIds) {
+        List<Long> ids = jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_BANK_ACCOUNTS);
+            statement.setArray(1, connection.createArrayOf("varchar", accountIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getLong("id"));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_BANK_ACCOUNTS_WITH_STRIPE_TOTALS);
+            statement.setArray(1, connection.createArrayOf("int8", ids.toArray()));
+            return statement;
+        }, SNAPSHOT_ROW_MAPPER);
+    }
+
+    // Balances are applied as deltas to the base row; sub-balances of striped accounts are left untouched.
+    public void applyBalances(Map<Long, Long> deltas, Map<Long, Integer> postingCounts, LocalDateTime postedAt) {
+        Long[] ids = deltas.keySet().toArray(Long[]::new);
+        BigDecimal[] balanceDeltas = Arrays.stream(ids).map(id -> Money.toBigDecimal(deltas.get(id))).toArray(BigDecimal[]::new);
+        Integer[] counts = Arrays.stream(ids).map(postingCounts::get).toArray(Integer[]::new);
+        jdbcTemplate.getJdbcOperations().update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_BALANCES);
+            statement.setObject(1, postedAt);
+            statement.setObject(2, postedAt);
+            statement.setArray(3, connection.createArrayOf("int8", ids));
+            statement.setArray(4, connection.createArrayOf("numeric", balanceDeltas));
+            statement.setArray(5, connection.createArrayOf("int4", counts));
+            return statement;
+        });
+    }
+
+    public List<AccountKey> setActive(Collection<String> accountIds, boolean active) {
+        return jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SET_ACTIVE);
+            statement.setArray(1, connection.createArrayOf("varchar", accountIds.toArray()));
+            statement.setBoolean(2, active);
+            statement.setBoolean(3, active);
+            return statement;
+        }, ACCOUNT_KEY_ROW_MAPPER);
+    }
+
+    public List<String> findMissingAccountIds(Collection<String> accountIds) {
+        return jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_MISSING_ACCOUNT_IDS);
+            statement.setArray(1, connection.createArrayOf("varchar", accountIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getString("account_id"));
+    }
+
+    public List<AccountKey> setActiveWhereInactiveSince(LocalDateTime since, boolean active, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("since", since)
+                .addValue("active", active)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SET_ACTIVE_WHERE_INACTIVE_SINCE, params, ACCOUNT_KEY_ROW_MAPPER);
+    }
+
+    public void insertTransactions(List<Transaction> transactions) {
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_TRANSACTION, transactions, transactions.size(),
+                (statement, transaction) -> {
+                    statement.setLong(1, transaction.getBankAccountId());
+                    statement.setBigDecimal(2, transaction.getAmount());
+                    statement.setString(3, transaction.getType().name());
+                    statement.setObject(4, transaction.getCreatedAt());
+                    statement.setString(5, transaction.getIdempotencyKey());
+                });
+    }
+
+    public record AccountKey(long id, String accountId) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.ml.testsexamples.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+// Removes deleted accounts. Every statement runs in its own short transaction, so a purge only ever holds
+// the locks of one small batch of rows.
+@Repository
+@RequiredArgsConstructor
+public class BankAccountPurgeRepository {
+
+    private static final String FIND_NEXT_DELETED = """
+            SELECT id FROM bank_account
+            WHERE deleted_at IS NOT NULL
+            ORDER BY deleted_at, id
+            LIMIT 1
+            """;
+
+    // Rows still locked by a running statement are left for the next batch instead of being waited for.
+    private static final String DELETE_TRANSACTIONS = """
+            DELETE FROM transaction
+            WHERE id IN (
+                SELECT id FROM transaction
+                WHERE bank_account_id = :id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    // Sub-balance rows go with the account through ON DELETE CASCADE.
+    private static final String DELETE_ACCOUNT = """
+            DELETE FROM bank_account ba
+            WHERE ba.id = :id
+              AND ba.deleted_at IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM transaction t WHERE t.bank_account_id = ba.id)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<Long> findNextDeleted() {
+        return jdbcTemplate.queryForList(FIND_NEXT_DELETED, new MapSqlParameterSource(), Long.class)
+                .stream()
+                .findFirst();
+    }
+
+    public int deleteTransactions(long bankAccountId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", bankAccountId)
+                .addValue("limit", limit);
+        return jdbcTemplate.update(DELETE_TRANSACTIONS, params);
+    }
+
+    public boolean deleteAccount(long bankAccountId) {
+        return jdbcTemplate.update(DELETE_ACCOUNT, new MapSqlParameterSource("id", bankAccountId)) == 1;
+    }
+}
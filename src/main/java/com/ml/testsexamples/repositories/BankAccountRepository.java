@@ -12,7 +12,12 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
     @Query("SELECT ba FROM BankAccount ba WHERE ba.accountId = :accountId")
     Optional<BankAccount> findBankAccountByAccountId(@Param("accountId") String accountId);
 
+    boolean existsByAccountId(String accountId);
+
+    @Query("SELECT ba FROM BankAccount ba LEFT JOIN FETCH ba.transactions WHERE ba.accountId = :accountId")
+    Optional<BankAccount> findBankAccountWithTransactionsByAccountId(@Param("accountId") String accountId);
+
     @Modifying
-    @Query("DELETE FROM BankAccount ba WHERE ba.accountId = :accountId")
-    void deleteByAccountId(@Param("accountId") String accountId);
+    @Query("UPDATE BankAccount ba SET ba.deletedAt = CURRENT_TIMESTAMP WHERE ba.accountId = :accountId AND ba.deletedAt IS NULL")
+    int markDeletedByAccountId(@Param("accountId") String accountId);
 }
\ No newline at end of file
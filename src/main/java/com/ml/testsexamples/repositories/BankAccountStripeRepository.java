@@ -0,0 +1,223 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.utils.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Postings of accounts whose balance is split across rows of bank_account_balance_stripe. Deposits only take
+// a KEY SHARE lock on the account row and add to a random sub-balance, so concurrent deposits to a hot account
+// contend on different rows. Withdrawals and restriping lock the account row, which serializes the minimum
+// balance check against the sum of all sub-balances.
+@Repository
+@RequiredArgsConstructor
+public class BankAccountStripeRepository {
+
+    private static final String LOCK_FOR_DEPOSIT = """
+            SELECT id, active, balance_stripes FROM bank_account
+            WHERE account_id = :accountId
+              AND deleted_at IS NULL
+            FOR KEY SHARE
+            """;
+
+    private static final String LOCK_FOR_WITHDRAWAL = """
+            SELECT id, active, balance_stripes FROM bank_account
+            WHERE account_id = :accountId
+              AND deleted_at IS NULL
+            FOR NO KEY UPDATE
+            """;
+
+    // Conflicts with both locks above, so the stripe rows cannot change while the account is restriped.
+    private static final String LOCK_FOR_RESTRIPE = """
+            SELECT id, active, balance_stripes FROM bank_account
+            WHERE account_id = :accountId
+              AND deleted_at IS NULL
+            FOR UPDATE
+            """;
+
+    private static final String FIND_WITH_STRIPE_TOTALS = BankAccountPostingRepository.SELECT_WITH_STRIPE_TOTALS + """
+            WHERE ba.id = :id
+            """;
+
+    private static final String FIND_STRIPED_BALANCE = """
+            SELECT coalesce(sum(balance), 0) FROM bank_account_balance_stripe
+            WHERE bank_account_id = :id
+            """;
+
+    private static final String POST_TO_STRIPE = """
+            UPDATE bank_account_balance_stripe
+            SET balance = balance + :delta,
+                transaction_count = transaction_count + 1,
+                last_activity_at = now()
+            WHERE bank_account_id = :id
+              AND stripe = :stripe
+              AND balance + :delta >= 0
+            """;
+
+    private static final String LOCK_STRIPES = """
+            SELECT coalesce(sum(balance), 0) FROM (
+                SELECT balance FROM bank_account_balance_stripe
+                WHERE bank_account_id = :id
+                FOR UPDATE
+            ) locked
+            """;
+
+    private static final String EMPTY_STRIPES = """
+            UPDATE bank_account_balance_stripe
+            SET balance = 0
+            WHERE bank_account_id = :id
+            """;
+
+    private static final String POST_TO_BASE = """
+            UPDATE bank_account
+            SET balance = balance + :delta,
+                transaction_count = transaction_count + 1,
+                last_activity_at = now(),
+                updated_at = now(),
+                version = version + 1
+            WHERE id = :id
+            """;
+
+    private static final String INSERT_TRANSACTION = """
+            INSERT INTO transaction (id, bank_account_id, amount, type, created_at, idempotency_key)
+            VALUES (nextval('transaction_id_sequence'), :id, :amount, :type, now(), :idempotencyKey)
+            """;
+
+    // Folds every sub-balance back into the base row. The version moves past every version handed out before,
+    // which counted the stripe postings on top of the base row's own version.
+    private static final String FOLD_STRIPES = """
+            WITH swept AS (
+                DELETE FROM bank_account_balance_stripe
+                WHERE bank_account_id = :id
+                RETURNING balance, transaction_count, last_activity_at
+            ), totals AS (
+                SELECT coalesce(sum(balance), 0) AS balance,
+                       coalesce(sum(transaction_count), 0) AS transaction_count,
+                       max(last_activity_at) AS last_activity_at
+                FROM swept
+            )
+            UPDATE bank_account ba
+            SET balance = ba.balance + totals.balance,
+                transaction_count = ba.transaction_count + totals.transaction_count,
+                last_activity_at = greatest(ba.last_activity_at, totals.last_activity_at),
+                balance_stripes = :stripes,
+                updated_at = now(),
+                version = ba.version + totals.transaction_count + 1
+            FROM totals
+            WHERE ba.id = :id
+            """;
+
+    private static final String INSERT_STRIPES = """
+            INSERT INTO bank_account_balance_stripe (bank_account_id, stripe, balance, transaction_count)
+            SELECT :id, stripe, 0, 0 FROM generate_series(0, :stripes - 1) AS stripe
+            """;
+
+    private static final RowMapper<LockedAccount> LOCKED_ACCOUNT_ROW_MAPPER = (rs, rowNum) -> new LockedAccount(
+            rs.getLong("id"),
+            rs.getBoolean("active"),
+            rs.getInt("balance_stripes"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Empty when the account does not exist, is inactive or cannot cover a withdrawal, like the unstriped posting.
+    public Optional<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type, String idempotencyKey) {
+        if (type == TransactionType.DEPOSIT) {
+            return lock(LOCK_FOR_DEPOSIT, accountId)
+                    .filter(LockedAccount::active)
+                    .map(account -> deposit(account, amount, idempotencyKey));
+        }
+        return lock(LOCK_FOR_WITHDRAWAL, accountId)
+                .filter(LockedAccount::active)
+                .flatMap(account -> withdraw(account, amount, idempotencyKey));
+    }
+
+    public Optional<BankAccountSnapshot> setBalanceStripes(String accountId, int stripes) {
+        return lock(LOCK_FOR_RESTRIPE, accountId).map(account -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("id", account.id())
+                    .addValue("stripes", stripes);
+            jdbcTemplate.update(FOLD_STRIPES, params);
+            jdbcTemplate.update(INSERT_STRIPES, params);
+            return findWithStripeTotals(account.id());
+        });
+    }
+
+    // Keeps striped postings out until the transaction ends, so the returned sum stays valid for setting the base row.
+    public BigDecimal lockStripedBalance(String accountId) {
+        return lock(LOCK_FOR_RESTRIPE, accountId)
+                .map(account -> jdbcTemplate.queryForObject(FIND_STRIPED_BALANCE,
+                        new MapSqlParameterSource("id", account.id()), BigDecimal.class))
+                .orElse(BigDecimal.ZERO);
+    }
+
+    private BankAccountSnapshot deposit(LockedAccount account, long amount, String idempotencyKey) {
+        if (account.balanceStripes() == 0 || !postToStripe(account, amount)) {
+            postToBase(account.id(), amount);
+        }
+        insertTransaction(account.id(), amount, TransactionType.DEPOSIT, idempotencyKey);
+        return findWithStripeTotals(account.id());
+    }
+
+    // Draws from one random sub-balance when it covers the amount; otherwise sweeps all sub-balances into
+    // the base row and withdraws from there.
+    private Optional<BankAccountSnapshot> withdraw(LockedAccount account, long amount, String idempotencyKey) {
+        BankAccountSnapshot current = findWithStripeTotals(account.id());
+        if (Money.toMinorUnits(current.balance()) - amount < Money.toMinorUnits(current.minimumBalance())) {
+            return Optional.empty();
+        }
+        if (account.balanceStripes() == 0 || !postToStripe(account, -amount)) {
+            MapSqlParameterSource params = new MapSqlParameterSource("id", account.id());
+            BigDecimal swept = jdbcTemplate.queryForObject(LOCK_STRIPES, params, BigDecimal.class);
+            jdbcTemplate.update(EMPTY_STRIPES, params);
+            postToBase(account.id(), Money.toMinorUnits(swept) - amount);
+        }
+        insertTransaction(account.id(), amount, TransactionType.WITHDRAW, idempotencyKey);
+        return Optional.of(findWithStripeTotals(account.id()));
+    }
+
+    private boolean postToStripe(LockedAccount account, long delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", account.id())
+                .addValue("stripe", ThreadLocalRandom.current().nextInt(account.balanceStripes()))
+                .addValue("delta", Money.toBigDecimal(delta));
+        return jdbcTemplate.update(POST_TO_STRIPE, params) == 1;
+    }
+
+    private void postToBase(Long id, long delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("delta", Money.toBigDecimal(delta));
+        jdbcTemplate.update(POST_TO_BASE, params);
+    }
+
+    private void insertTransaction(Long id, long amount, TransactionType type, String idempotencyKey) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("amount", Money.toBigDecimal(amount))
+                .addValue("type", type.name())
+                .addValue("idempotencyKey", idempotencyKey);
+        jdbcTemplate.update(INSERT_TRANSACTION, params);
+    }
+
+    private BankAccountSnapshot findWithStripeTotals(Long id) {
+        return jdbcTemplate.queryForObject(FIND_WITH_STRIPE_TOTALS, new MapSqlParameterSource("id", id),
+                BankAccountPostingRepository.SNAPSHOT_ROW_MAPPER);
+    }
+
+    private Optional<LockedAccount> lock(String sql, String accountId) {
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("accountId", accountId), LOCKED_ACCOUNT_ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    private record LockedAccount(Long id, boolean active, int balanceStripes) {
+    }
+}
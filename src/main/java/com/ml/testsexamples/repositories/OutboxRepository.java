@@ -0,0 +1,100 @@
+package com.ml.testsexamples.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dao.OutboxEvent;
+import com.ml.testsexamples.dto.AccountEventDto;
+import com.ml.testsexamples.enums.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+// Events are appended in the transaction of the change they describe, so they are published if and only if it
+// commits. Changes of one account hold its row lock until commit, so their events get ascending ids in commit
+// order and relaying by id keeps them in order per account. Deposits to a striped account are the exception:
+// they share a KEY SHARE lock, so concurrent ones may commit, and be published, out of id order. They are still
+// ordered against every other change of the account, which all conflict with that lock.
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    // "outbox" in ASCII; the key of the transaction-scoped advisory lock held by the relay batch in progress.
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    static final String INSERT_EVENT = """
+            INSERT INTO outbox_event (account_id, type, payload, created_at)
+            VALUES (:accountId, :type, :payload, now())
+            """;
+
+    private static final String TRY_LOCK_RELAY = "SELECT pg_try_advisory_xact_lock(:key)";
+
+    private static final String FIND_NEXT_BATCH = """
+            SELECT id, account_id, type, payload, created_at FROM outbox_event
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private static final String DELETE_EVENTS = "DELETE FROM outbox_event WHERE id = ANY(?)";
+
+    private static final RowMapper<OutboxEvent> OUTBOX_EVENT_ROW_MAPPER = (rs, rowNum) -> OutboxEvent.builder()
+            .id(rs.getLong("id"))
+            .accountId(rs.getString("account_id"))
+            .type(OutboxEventType.valueOf(rs.getString("type")))
+            .payload(rs.getString("payload"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void append(AccountEventDto event) {
+        jdbcTemplate.update(INSERT_EVENT, params(event));
+    }
+
+    public void appendAll(Collection<AccountEventDto> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events.stream().map(this::params).toArray(SqlParameterSource[]::new));
+    }
+
+    // Only one relay batch runs at a time across all instances; the lock is released when the transaction ends.
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_RELAY,
+                new MapSqlParameterSource("key", RELAY_LOCK_KEY), Boolean.class));
+    }
+
+    public List<OutboxEvent> findNextBatch(int limit) {
+        return jdbcTemplate.query(FIND_NEXT_BATCH, new MapSqlParameterSource("limit", limit), OUTBOX_EVENT_ROW_MAPPER);
+    }
+
+    public int delete(Collection<Long> ids) {
+        return jdbcTemplate.getJdbcOperations().update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DELETE_EVENTS);
+            statement.setArray(1, connection.createArrayOf("int8", ids.toArray()));
+            return statement;
+        });
+    }
+
+    private SqlParameterSource params(AccountEventDto event) {
+        return new MapSqlParameterSource()
+                .addValue("accountId", event.accountId())
+                .addValue("type", event.type().name())
+                .addValue("payload", payload(objectMapper, event));
+    }
+
+    static String payload(ObjectMapper objectMapper, AccountEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.caches.BankAccountCache;
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.utils.Money;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Account statements of the reactive stack. They share their SQL with the JDBC repositories, so striped accounts
+// are read and posted to with their sub-balances folded in. Every write also notifies the servlet nodes' account
+// caches, using a node id that never matches one of theirs.
+@Repository
+@RequiredArgsConstructor
+public class ReactiveBankAccountPostingRepository {
+
+    private static final String NODE_ID = "reactive";
+
+    private static final String INSERT_BANK_ACCOUNT = """
+            INSERT INTO bank_account (id, account_id, first_name, last_name, balance, minimum_balance, active,
+                                      transaction_count, created_at, updated_at, version)
+            VALUES (nextval('bank_account_id_sequence'), :accountId, :firstName, :lastName, :balance, :minimumBalance,
+                    :active, 0, now(), now(), 0)
+            RETURNING *
+            """;
+
+    private static final String FIND_ALL_BANK_ACCOUNTS = BankAccountPostingRepository.SELECT_WITH_STRIPE_TOTALS + """
+            WHERE ba.deleted_at IS NULL
+            """;
+
+    private static final String FIND_BANK_ACCOUNT = BankAccountPostingRepository.SELECT_WITH_STRIPE_TOTALS + """
+            WHERE ba.account_id = :accountId
+              AND ba.deleted_at IS NULL
+            """;
+
+    // The lock striped withdrawals take; striped deposits still add to sub-balances meanwhile.
+    private static final String LOCK_FOR_POSTING = """
+            SELECT id FROM bank_account
+            WHERE account_id = :accountId
+              AND deleted_at IS NULL
+            FOR NO KEY UPDATE
+            """;
+
+    // Conflicts with every striped posting, so the sub-balances stay as read until the transaction ends.
+    private static final String LOCK_FOR_BALANCE_UPDATE = """
+            SELECT id FROM bank_account
+            WHERE account_id = :accountId
+              AND deleted_at IS NULL
+            FOR UPDATE
+            """;
+
+    private static final String FIND_STRIPED_BALANCE = """
+            SELECT coalesce(sum(balance), 0) AS balance FROM bank_account_balance_stripe
+            WHERE bank_account_id = :id
+            """;
+
+    private static final String NOTIFY = "SELECT pg_notify(:channel, :payload)";
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<BankAccountSnapshot> findAllBankAccounts() {
+        return databaseClient.sql(FIND_ALL_BANK_ACCOUNTS)
+                .map(ReactiveBankAccountPostingRepository::toSnapshot)
+                .all();
+    }
+
+    public Mono<BankAccountSnapshot> findBankAccountByAccountId(String accountId) {
+        return databaseClient.sql(FIND_BANK_ACCOUNT)
+                .bind("accountId", accountId)
+                .map(ReactiveBankAccountPostingRepository::toSnapshot)
+                .one();
+    }
+
+    // Unstriped accounts take the single-statement posting. Striped accounts are posted to their base row once
+    // locked, by a second statement whose snapshot includes every sub-balance committed before the lock.
+    public Mono<BankAccountSnapshot> postTransaction(String accountId, long amount, TransactionType type) {
+        return post(BankAccountPostingRepository.POST_UNSTRIPED_TRANSACTION, accountId, amount, type)
+                .switchIfEmpty(Mono.defer(() -> lock(LOCK_FOR_POSTING, accountId)
+                        .flatMap(id -> post(BankAccountPostingRepository.POST_TO_BASE_WITH_STRIPE_TOTALS, accountId, amount, type))))
+                .flatMap(this::notifyCaches);
+    }
+
+    public Mono<BankAccountSnapshot> insertBankAccount(BankAccount bankAccount) {
+        return databaseClient.sql(INSERT_BANK_ACCOUNT)
+                .bind("accountId", bankAccount.getAccountId())
+                .bind("firstName", bankAccount.getFirstName())
+                .bind("lastName", bankAccount.getLastName())
+                .bind("balance", bankAccount.getBalance())
+                .bind("minimumBalance", bankAccount.getMinimumBalance())
+                .bind("active", bankAccount.isActive())
+                .map(ReactiveBankAccountPostingRepository::toSnapshot)
+                .one()
+                .flatMap(this::notifyCaches);
+    }
+
+    // A new balance is the total, so the sub-balances are locked and subtracted to get the base row's share.
+    public Mono<BankAccountSnapshot> updateBankAccount(String accountId, BankAccountUpdate update) {
+        if (update.balance() == null) {
+            return update(accountId, update);
+        }
+        return lock(LOCK_FOR_BALANCE_UPDATE, accountId)
+                .flatMap(id -> databaseClient.sql(FIND_STRIPED_BALANCE)
+                        .bind("id", id)
+                        .map(row -> row.get("balance", BigDecimal.class))
+                        .one())
+                .flatMap(striped -> update(accountId, update.toBuilder()
+                        .balance(update.balance() - Money.toMinorUnits(striped))
+                        .build()));
+    }
+
+    public Mono<Void> notifyCaches(String accountId) {
+        return databaseClient.sql(NOTIFY)
+                .bind("channel", BankAccountCache.CHANNEL)
+                .bind("payload", NODE_ID + ":" + accountId)
+                .then();
+    }
+
+    private Mono<BankAccountSnapshot> post(String sql, String accountId, long amount, TransactionType type) {
+        long delta = type == TransactionType.DEPOSIT ? amount : -amount;
+        return databaseClient.sql(sql)
+                .bind("accountId", accountId)
+                .bind("delta", Money.toBigDecimal(delta))
+                .bind("amount", Money.toBigDecimal(amount))
+                .bind("type", type.name())
+                .bindNull("idempotencyKey", String.class)
+                .map(ReactiveBankAccountPostingRepository::toSnapshot)
+                .one();
+    }
+
+    private Mono<BankAccountSnapshot> update(String accountId, BankAccountUpdate update) {
+        Map<String, Object> columns = BankAccountPostingRepository.changedColumns(update);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql(BankAccountPostingRepository.updateBankAccountSql(columns.keySet(), false))
+                .bind("accountId", accountId);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            spec = spec.bind(column.getKey(), column.getValue());
+        }
+        return spec.map(ReactiveBankAccountPostingRepository::toSnapshot)
+                .one()
+                .flatMap(this::notifyCaches);
+    }
+
+    private Mono<Long> lock(String sql, String accountId) {
+        return databaseClient.sql(sql)
+                .bind("accountId", accountId)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    private Mono<BankAccountSnapshot> notifyCaches(BankAccountSnapshot snapshot) {
+        return notifyCaches(snapshot.accountId()).thenReturn(snapshot);
+    }
+
+    private static BankAccountSnapshot toSnapshot(Row row, RowMetadata metadata) {
+        return new BankAccountSnapshot(
+                row.get("id", Long.class),
+                row.get("account_id", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("balance", BigDecimal.class),
+                row.get("minimum_balance", BigDecimal.class),
+                Boolean.TRUE.equals(row.get("active", Boolean.class)),
+                row.get("transaction_count", Long.class),
+                row.get("last_activity_at", LocalDateTime.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("version", Long.class),
+                row.get("balance_stripes", Integer.class));
+    }
+}
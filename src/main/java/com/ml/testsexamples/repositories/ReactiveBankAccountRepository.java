@@ -0,0 +1,14 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBankAccountRepository extends R2dbcRepository<BankAccountSnapshot, Long> {
+    @Modifying
+    @Query("UPDATE bank_account SET deleted_at = now() WHERE account_id = :accountId AND deleted_at IS NULL")
+    Mono<Integer> markDeletedByAccountId(@Param("accountId") String accountId);
+}
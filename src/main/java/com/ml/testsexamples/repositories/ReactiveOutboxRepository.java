@@ -0,0 +1,26 @@
+package com.ml.testsexamples.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dto.AccountEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// OutboxRepository.append for the reactive stack: the same row and payload, written in the transaction of the change.
+@Repository
+@RequiredArgsConstructor
+public class ReactiveOutboxRepository {
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public Mono<Void> append(AccountEventDto event) {
+        return Mono.fromCallable(() -> OutboxRepository.payload(objectMapper, event))
+                .flatMap(payload -> databaseClient.sql(OutboxRepository.INSERT_EVENT)
+                        .bind("accountId", event.accountId())
+                        .bind("type", event.type().name())
+                        .bind("payload", payload)
+                        .then());
+    }
+}
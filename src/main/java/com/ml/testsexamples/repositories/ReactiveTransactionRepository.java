@@ -0,0 +1,9 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.Transaction;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveTransactionRepository extends R2dbcRepository<Transaction, Long> {
+    Flux<Transaction> findByBankAccountIdOrderByCreatedAtAscIdAsc(Long bankAccountId);
+}
@@ -3,5 +3,12 @@ package com.ml.testsexamples.repositories;
 import com.ml.testsexamples.dao.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+    List<Transaction> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+}
@@ -0,0 +1,21 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.TransactionCursor;
+import com.ml.testsexamples.dto.TransactionDto;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+    List<Transaction> findTransactionsPage(Long bankAccountId, TransactionHistoryRequest filter, TransactionCursor cursor, int limit);
+
+    // Oldest first. The caller must close the stream, inside the transaction that opened it.
+    Stream<TransactionDto> streamTransactions(Long bankAccountId, LocalDateTime from, LocalDateTime to, int fetchSize);
+
+    // The account balance, stripes included, less every transaction posted at or after from.
+    BigDecimal findBalanceBefore(Long bankAccountId, LocalDateTime from);
+}
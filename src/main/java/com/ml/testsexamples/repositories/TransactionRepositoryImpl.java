@@ -0,0 +1,116 @@
+package com.ml.testsexamples.repositories;
+
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.TransactionCursor;
+import com.ml.testsexamples.dto.TransactionDto;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final String BALANCE_BEFORE = """
+            SELECT COALESCE(ba.balance, 0)
+                 + (SELECT COALESCE(SUM(s.balance), 0) FROM bank_account_balance_stripe s WHERE s.bank_account_id = ba.id)
+                 - (SELECT COALESCE(SUM(CASE WHEN t.type = 'DEPOSIT' THEN t.amount ELSE -t.amount END), 0)
+                    FROM transaction t
+                    WHERE t.bank_account_id = ba.id%s)
+            FROM bank_account ba
+            WHERE ba.id = :bankAccountId
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Transaction> findTransactionsPage(Long bankAccountId, TransactionHistoryRequest filter, TransactionCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> transaction = query.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(transaction.get("bankAccountId"), bankAccountId));
+        if (filter.type() != null) {
+            predicates.add(cb.equal(transaction.get("type"), filter.type()));
+        }
+        if (filter.minAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transaction.<BigDecimal>get("amount"), filter.minAmount()));
+        }
+        if (filter.maxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(transaction.<BigDecimal>get("amount"), filter.maxAmount()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transaction.<LocalDateTime>get("createdAt"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(transaction.<LocalDateTime>get("createdAt"), filter.to()));
+        }
+        // The leading bound is the range the (bank_account_id, created_at, id) index can seek to; the OR only breaks
+        // ties on created_at.
+        if (cursor != null) {
+            predicates.add(cb.lessThanOrEqualTo(transaction.<LocalDateTime>get("createdAt"), cursor.createdAt()));
+            predicates.add(cb.or(
+                    cb.lessThan(transaction.<LocalDateTime>get("createdAt"), cursor.createdAt()),
+                    cb.and(
+                            cb.equal(transaction.get("createdAt"), cursor.createdAt()),
+                            cb.lessThan(transaction.<Long>get("id"), cursor.id()))));
+        }
+
+        query.select(transaction)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(transaction.get("createdAt")), cb.desc(transaction.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Projected to TransactionDto, so the rows never enter the persistence context, and read fetchSize rows at a
+    // time. PostgreSQL only honours the fetch size inside a transaction; otherwise it reads the whole result.
+    @Override
+    public Stream<TransactionDto> streamTransactions(Long bankAccountId, LocalDateTime from, LocalDateTime to, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> query = cb.createQuery(TransactionDto.class);
+        Root<Transaction> transaction = query.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(transaction.get("bankAccountId"), bankAccountId));
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transaction.<LocalDateTime>get("createdAt"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(transaction.<LocalDateTime>get("createdAt"), to));
+        }
+
+        query.select(cb.construct(TransactionDto.class, transaction.get("amount"), transaction.get("type"), transaction.get("createdAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(transaction.get("createdAt")), cb.asc(transaction.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    // Balance and transactions are read by one statement, so they agree even while postings commit.
+    @Override
+    public BigDecimal findBalanceBefore(Long bankAccountId, LocalDateTime from) {
+        Query query = entityManager.createNativeQuery(BALANCE_BEFORE.formatted(from != null ? " AND t.created_at >= :from" : ""))
+                .setParameter("bankAccountId", bankAccountId);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        return (BigDecimal) query.getSingleResult();
+    }
+}
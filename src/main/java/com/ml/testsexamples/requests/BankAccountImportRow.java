@@ -0,0 +1,13 @@
+package com.ml.testsexamples.requests;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.ml.testsexamples.utils.Money;
+
+// One account of a bulk import. Balances are in minor units; JSON carries them in major units.
+public record BankAccountImportRow(
+        String accountId,
+        String firstName,
+        String lastName,
+        @JsonDeserialize(using = Money.Deserializer.class) Long balance,
+        @JsonDeserialize(using = Money.Deserializer.class) Long minimumBalance) {
+}
@@ -0,0 +1,28 @@
+package com.ml.testsexamples.requests;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ml.testsexamples.utils.Money;
+
+// A JSON Merge Patch of an account: absent members are left unchanged. None of these attributes can be removed,
+// so a null member is an error rather than a deletion. minimumBalance is in minor units; JSON carries it in
+// major units.
+public record BankAccountPatchRequest(
+        @JsonSetter(nulls = Nulls.FAIL) String firstName,
+        @JsonSetter(nulls = Nulls.FAIL) String lastName,
+        @JsonSetter(nulls = Nulls.FAIL)
+        @JsonDeserialize(using = Money.Deserializer.class)
+        @JsonSerialize(using = Money.Serializer.class) Long minimumBalance,
+        @JsonSetter(nulls = Nulls.FAIL) Boolean active) {
+
+    public BankAccountUpdate toUpdate() {
+        return BankAccountUpdate.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .minimumBalance(minimumBalance)
+                .active(active)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ml.testsexamples.requests;
+
+import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.utils.Money;
+import lombok.Builder;
+
+import java.util.Map;
+
+// A partial update of a bank account: null components are left unchanged. Amounts are in minor units.
+@Builder(toBuilder = true)
+public record BankAccountUpdate(String firstName, String lastName, Long balance, Long minimumBalance, Boolean active) {
+
+    public static BankAccountUpdate of(Map<BankAccountFields, String> values) {
+        BankAccountUpdateBuilder builder = builder();
+        values.forEach((field, value) -> {
+            switch (field) {
+                case FIRST_NAME -> builder.firstName(value);
+                case LAST_NAME -> builder.lastName(value);
+                case BALANCE -> builder.balance(Money.parse(value));
+                case MINIMUM_BALANCE -> builder.minimumBalance(Money.parse(value));
+                case ACTIVE -> builder.active(Boolean.parseBoolean(value));
+                default -> throw new IllegalArgumentException("You are unauthorized to update this field.");
+            }
+        });
+        return builder.build();
+    }
+
+    public static BankAccountUpdate activation(boolean active) {
+        return builder().active(active).build();
+    }
+
+    public boolean isEmpty() {
+        return firstName == null && lastName == null && balance == null && minimumBalance == null && active == null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ml.testsexamples.requests;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Selects accounts either by id or as those without a posting since inactiveSince; exactly one must be given.
+public record BulkActivationRequest(
+        List<String> accountIds,
+        LocalDateTime inactiveSince) {
+}
@@ -0,0 +1,18 @@
+package com.ml.testsexamples.requests;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.utils.Money;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Positive;
+import lombok.NonNull;
+
+// amount is in minor units; JSON carries it in major units.
+public record PostingRequest(
+        @Email(message = "Invalid email format") @NonNull String accountId,
+        @NonNull TransactionType type,
+        @Positive(message = "Amount must be a positive number")
+        @JsonDeserialize(using = Money.Deserializer.class)
+        @JsonSerialize(using = Money.Serializer.class) long amount) {
+}
@@ -0,0 +1,15 @@
+package com.ml.testsexamples.requests;
+
+import com.ml.testsexamples.enums.TransactionType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionHistoryRequest(
+        TransactionType type,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+}
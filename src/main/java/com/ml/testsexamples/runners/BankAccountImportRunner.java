@@ -0,0 +1,49 @@
+package com.ml.testsexamples.runners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dto.AccountImportResultDto;
+import com.ml.testsexamples.enums.ImportFormat;
+import com.ml.testsexamples.services.BankAccountService;
+import com.ml.testsexamples.utils.BankAccountImportReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Imports account files given on the command line, each one like POST /api/v1/bank-accounts/import:
+//   java -jar app.jar --import-accounts=partner.csv --spring.main.web-application-type=none
+// The format follows the file extension, .csv or .ndjson. The option may be repeated.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BankAccountImportRunner implements ApplicationRunner {
+
+    private static final String IMPORT_ACCOUNTS_OPTION = "import-accounts";
+
+    private final BankAccountService bankAccountService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> files = args.getOptionValues(IMPORT_ACCOUNTS_OPTION);
+        if (files == null) {
+            return;
+        }
+        for (String file : files) {
+            ImportFormat format = ImportFormat.ofFileName(file);
+            try (BankAccountImportReader reader = new BankAccountImportReader(Files.newInputStream(Path.of(file)), format, objectMapper)) {
+                AccountImportResultDto result = bankAccountService.importAccounts(reader);
+                log.info("BankAccountImportRunner.run(args) - imported bank accounts. file: {}, inserted: {}, updated: {}, rejected: {}",
+                        file, result.inserted(), result.updated(), result.rejected());
+                result.errors().forEach(error -> log.warn("BankAccountImportRunner.run(args) - rejected line. file: {}, line: {}, message: {}",
+                        file, error.line(), error.message()));
+            }
+        }
+    }
+}
@@ -1,120 +1,479 @@
 package com.ml.testsexamples.services;
 
+import com.ml.testsexamples.caches.IdempotencyCache;
 import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.AccountImportResultDto;
 import com.ml.testsexamples.dto.BankAccountDto;
-import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.dto.BatchPostingResultDto;
+import com.ml.testsexamples.dto.BulkActivationResultDto;
+import com.ml.testsexamples.dto.PostingResultDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.dto.StatementLineDto;
+import com.ml.testsexamples.dto.TransactionCursor;
+import com.ml.testsexamples.dto.TransactionDto;
+import com.ml.testsexamples.dto.TransactionPageDto;
+import com.ml.testsexamples.dto.VersionedDto;
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.enums.PostingStatus;
 import com.ml.testsexamples.enums.TransactionType;
 import com.ml.testsexamples.exceptions.EmailValidationException;
+import com.ml.testsexamples.exceptions.IdempotencyKeyReusedException;
 import com.ml.testsexamples.exceptions.InactiveAccountException;
 import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.exceptions.InvalidAmountException;
+import com.ml.testsexamples.exceptions.InvalidBalanceStripesException;
+import com.ml.testsexamples.exceptions.InvalidBulkActivationException;
+import com.ml.testsexamples.exceptions.InvalidIdempotencyKeyException;
+import com.ml.testsexamples.facades.AccountImportOutcome;
+import com.ml.testsexamples.facades.ActivationOutcome;
+import com.ml.testsexamples.facades.BankAccountImporter;
 import com.ml.testsexamples.facades.DataFacade;
+import com.ml.testsexamples.facades.PostingCoalescer;
+import com.ml.testsexamples.facades.PostingOutcome;
 import com.ml.testsexamples.mappers.BankAccountMapper;
+import com.ml.testsexamples.repositories.BankAccountPostingRepository.AccountKey;
+import com.ml.testsexamples.requests.BankAccountPatchRequest;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.BulkActivationRequest;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+import com.ml.testsexamples.utils.BankAccountImportReader;
+import com.ml.testsexamples.utils.EntityTags;
+import com.ml.testsexamples.utils.Money;
+import com.ml.testsexamples.validators.BankAccountValidator;
 import com.ml.testsexamples.validators.EmailValidator;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.util.Pair;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class BankAccountService {
 
+    private static final int MAX_TRANSACTIONS_PAGE_SIZE = 500;
+    private static final int MAX_BALANCE_STRIPES = 64;
+    private static final int BULK_ACTIVATION_CHUNK_SIZE = 5_000;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final int STATEMENT_FETCH_SIZE = 1_000;
+
     private final DataFacade dataFacade;
     private final BankAccountMapper mapper;
+    private final PostingCoalescer postingCoalescer;
+    private final IdempotencyCache idempotencyCache;
+    private final BankAccountImporter bankAccountImporter;
 
-    public BankAccountService(DataFacade dataFacade, BankAccountMapper mapper) {
+    public BankAccountService(DataFacade dataFacade, BankAccountMapper mapper, PostingCoalescer postingCoalescer,
+                              IdempotencyCache idempotencyCache, BankAccountImporter bankAccountImporter) {
         this.dataFacade = dataFacade;
         this.mapper = mapper;
+        this.postingCoalescer = postingCoalescer;
+        this.idempotencyCache = idempotencyCache;
+        this.bankAccountImporter = bankAccountImporter;
     }
 
-    public Optional<BankAccountDto> getAccountInfo(String accountId) {
+    public Optional<BankAccountSummaryDto> getAccountInfo(String requestedAccountId) {
+        String accountId = canonicalAccountId(requestedAccountId);
         log.info("BankAccountService.getAccountInfo(accountId) - get info about bank account. accountId: {}", accountId);
-        validateAccountId(accountId);
 
         Optional<BankAccount> bankAccount = dataFacade.findBankAccountByAccountId(accountId);
         if (bankAccount.isEmpty()) {
             throw new EntityNotFoundException("Invalid bank account");
         }
+        return bankAccount.map(mapper::toSummaryDto);
+    }
+
+    public VersionedDto<BankAccountSummaryDto> getAccountInfo(String requestedAccountId, String ifNoneMatch) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.getAccountInfo(accountId,ifNoneMatch) - get info about bank account unless it is unchanged. accountId: {}", accountId);
+
+        Optional<BankAccount> bankAccount = dataFacade.findBankAccountByAccountId(accountId);
+        validateAccountExists(bankAccount);
+
+        long version = bankAccount.get().getEntityVersion();
+        if (EntityTags.matches(ifNoneMatch, version)) {
+            return VersionedDto.notModified(EntityTags.of(version));
+        }
+        return new VersionedDto<>(EntityTags.of(version), mapper.toSummaryDto(bankAccount.get()));
+    }
+
+    public Optional<BankAccountDto> getAccountDetails(String requestedAccountId) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.getAccountDetails(accountId) - get info and transactions history about bank account. accountId: {}", accountId);
+
+        Optional<BankAccount> bankAccount = dataFacade.findBankAccountWithTransactionsByAccountId(accountId);
+        if (bankAccount.isEmpty()) {
+            throw new EntityNotFoundException("Invalid bank account");
+        }
         return bankAccount.map(mapper::toDto);
     }
 
+    public TransactionPageDto getTransactions(String requestedAccountId, TransactionHistoryRequest filter, String cursor, int limit) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.getTransactions(accountId,filter,cursor,limit) - get a page of bank account transactions. accountId: {}, filter: {}", accountId, filter);
+
+        Optional<BankAccount> bankAccount = dataFacade.findBankAccountByAccountId(accountId);
+        validateAccountExists(bankAccount);
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_TRANSACTIONS_PAGE_SIZE);
+        List<Transaction> transactions = dataFacade.findTransactionsPage(bankAccount.get().getId(), filter,
+                TransactionCursor.decode(cursor), pageSize + 1);
+
+        boolean hasNext = transactions.size() > pageSize;
+        List<Transaction> page = hasNext ? transactions.subList(0, pageSize) : transactions;
+        String nextCursor = hasNext ? TransactionCursor.of(page.get(pageSize - 1)).encode() : null;
+        return new TransactionPageDto(mapper.mapTransactions(page), nextCursor);
+    }
+
+    // Each line goes to the consumer as soon as its row is read, with the balance after that transaction, so
+    // neither the history nor the statement is ever held in memory.
+    public void streamStatement(String requestedAccountId, LocalDateTime from, LocalDateTime to, Consumer<StatementLineDto> lines) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.streamStatement(accountId,from,to) - stream the statement of bank account. accountId: {}, from: {}, to: {}", accountId, from, to);
+
+        Optional<BankAccount> bankAccount = dataFacade.findBankAccountByAccountId(accountId);
+        validateAccountExists(bankAccount);
+
+        dataFacade.streamStatement(bankAccount.get().getId(), from, to, STATEMENT_FETCH_SIZE, (openingBalance, transactions) -> {
+            long balance = Money.toMinorUnits(openingBalance);
+            Iterator<TransactionDto> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                TransactionDto transaction = iterator.next();
+                long amount = Money.toMinorUnits(transaction.amount());
+                balance += transaction.type() == TransactionType.DEPOSIT ? amount : -amount;
+                lines.accept(new StatementLineDto(transaction.createdAt(), transaction.type(), Money.toBigDecimal(amount), Money.toBigDecimal(balance)));
+            }
+        });
+    }
+
     public Optional<BankAccountDto> createAccount(BankAccountDto bankAccountDto) {
         log.info("BankAccountService.createAccount(bankAccount) - create bank account");
-        return dataFacade.saveBankAccount(mapper.toDao(bankAccountDto)).map(mapper::toDto);
+        BankAccount bankAccount = mapper.toDao(bankAccountDto);
+        bankAccount.setAccountId(EmailValidator.canonicalize(bankAccount.getAccountId()));
+        return dataFacade.saveBankAccount(bankAccount).map(mapper::toDto);
+    }
+
+    // Rejected lines are skipped and reported; the accounts of all other lines are imported together or not at all.
+    public AccountImportResultDto importAccounts(BankAccountImportReader reader) {
+        log.info("BankAccountService.importAccounts(reader) - import bank accounts in bulk");
+
+        AccountImportOutcome outcome = bankAccountImporter.importAccounts(reader);
+        return new AccountImportResultDto(outcome.inserted(), outcome.updated(),
+                reader.rejected() + outcome.rejected(), reader.errors());
     }
 
-    public void deleteBankAccountByAccountId(String accountId) {
+    public void deleteBankAccountByAccountId(String requestedAccountId) {
+        String accountId = canonicalAccountId(requestedAccountId);
         log.info("BankAccountService.deleteBankAccountByAccountId(accountId) - delete bank account. accountId: {}", accountId);
-        validateAccountId(accountId);
 
         dataFacade.deleteBankAccountByAccountId(accountId);
     }
 
-    public Optional<BankAccountDto> activateAccount(String accountId) {
+    public VersionedDto<BankAccountSummaryDto> patchAccount(String requestedAccountId, BankAccountPatchRequest patch, String ifMatch) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.patchAccount(accountId,patch) - update several attributes of a bank account at once. accountId: {}", accountId);
+
+        return updateBankAccount(accountId, patch.toUpdate(), ifMatch);
+    }
+
+    public Optional<BankAccountSummaryDto> activateAccount(String requestedAccountId) {
+        return Optional.of(activateAccount(requestedAccountId, null).body());
+    }
+
+    public VersionedDto<BankAccountSummaryDto> activateAccount(String requestedAccountId, String ifMatch) {
+        String accountId = canonicalAccountId(requestedAccountId);
         log.info("BankAccountService.activateAccount(accountId) - make a bank account active. accountId: {}", accountId);
-        validateAccountId(accountId);
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        if (original.isEmpty()) {
-            throw new EntityNotFoundException("Invalid bank account");
-        }
-        return dataFacade.updateBankAccount(accountId, List.of(Pair.of(BankAccountFields.ACTIVE, "true"))).map(mapper::toDto);
+        return updateBankAccount(accountId, BankAccountUpdate.activation(true), ifMatch);
+    }
+
+    public Optional<BankAccountSummaryDto> deactivateAccount(String requestedAccountId) {
+        return Optional.of(deactivateAccount(requestedAccountId, null).body());
     }
 
-    public Optional<BankAccountDto> deactivateAccount(String accountId) {
+    public VersionedDto<BankAccountSummaryDto> deactivateAccount(String requestedAccountId, String ifMatch) {
+        String accountId = canonicalAccountId(requestedAccountId);
         log.info("BankAccountService.deactivateAccount(accountId) - make a bank account inactive. accountId: {}", accountId);
-        validateAccountId(accountId);
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        if (original.isEmpty()) {
-            throw new EntityNotFoundException("Invalid bank account");
+        return updateBankAccount(accountId, BankAccountUpdate.activation(false), ifMatch);
+    }
+
+    public BulkActivationResultDto activateAccounts(BulkActivationRequest request) {
+        log.info("BankAccountService.activateAccounts(request) - make bank accounts active. accountIds: {}, inactiveSince: {}",
+                request.accountIds() == null ? null : request.accountIds().size(), request.inactiveSince());
+        return setActive(request, true);
+    }
+
+    public BulkActivationResultDto deactivateAccounts(BulkActivationRequest request) {
+        log.info("BankAccountService.deactivateAccounts(request) - make bank accounts inactive. accountIds: {}, inactiveSince: {}",
+                request.accountIds() == null ? null : request.accountIds().size(), request.inactiveSince());
+        return setActive(request, false);
+    }
+
+    // 0 folds every sub-balance back into the account row and turns striping off.
+    public Optional<BankAccountSummaryDto> setBalanceStripes(String requestedAccountId, int stripes) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.setBalanceStripes(accountId,stripes) - split bank account balance across sub-balances. accountId: {}, stripes: {}", accountId, stripes);
+
+        if (stripes < 0 || stripes > MAX_BALANCE_STRIPES) {
+            throw new InvalidBalanceStripesException();
         }
-        return dataFacade.updateBankAccount(accountId, List.of(Pair.of(BankAccountFields.ACTIVE, "false"))).map(mapper::toDto);
+        return Optional.of(dataFacade.setBalanceStripes(accountId, stripes)
+                .map(mapper::toSummaryDto)
+                .orElseThrow(() -> new EntityNotFoundException("Invalid bank account")));
     }
 
-    public Optional<BankAccountDto> makeDeposit(String accountId, double amount) {
-        log.info("BankAccountService.makeDeposit(accountId,amount) - make a deposit to bank account. accountId: {}, amount: {}", accountId, amount);
-        validateAccountId(accountId);
+    public Optional<BankAccountSummaryDto> makeDeposit(String requestedAccountId, long amount) {
+        return makeDeposit(requestedAccountId, amount, null);
+    }
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        validateAccountExists(original);
-        validateAccountActive(original);
+    public Optional<BankAccountSummaryDto> makeDeposit(String requestedAccountId, long amount, String idempotencyKey) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.makeDeposit(accountId,amount) - make a deposit to bank account. accountId: {}, amountMinorUnits: {}", accountId, amount);
 
-        BigDecimal depositAmount = BigDecimal.valueOf(amount);
-        dataFacade.saveTransaction(original.get().getId(), depositAmount, TransactionType.DEPOSIT);
+        return Optional.of(post(accountId, amount, TransactionType.DEPOSIT, idempotencyKey));
+    }
 
-        return original.map(account -> {
-            BigDecimal updatedBalance = account.getBalance().add(depositAmount);
-            return updateAccountBalance(accountId, updatedBalance);
-        });
+    public Optional<BankAccountSummaryDto> makeWithdraw(String requestedAccountId, long amount) {
+        return makeWithdraw(requestedAccountId, amount, null);
     }
 
-    public Optional<BankAccountDto> makeWithdraw(String accountId, double amount) {
-        log.info("BankAccountService.makeWithdraw(id, amount) - make a withdraw for bank account. accountId: {}, amount: {}", accountId, amount);
-        validateAccountId(accountId);
+    public Optional<BankAccountSummaryDto> makeWithdraw(String requestedAccountId, long amount, String idempotencyKey) {
+        String accountId = canonicalAccountId(requestedAccountId);
+        log.info("BankAccountService.makeWithdraw(id, amount) - make a withdraw for bank account. accountId: {}, amountMinorUnits: {}", accountId, amount);
 
-        Optional<BankAccount> original = dataFacade.findBankAccountByAccountId(accountId);
-        validateAccountExists(original);
-        validateAccountActive(original);
-        validateSufficientFunds(original, amount);
+        return Optional.of(post(accountId, amount, TransactionType.WITHDRAW, idempotencyKey));
+    }
 
-        BigDecimal withdrawalAmount = BigDecimal.valueOf(amount);
-        dataFacade.saveTransaction(original.get().getId(), withdrawalAmount, TransactionType.WITHDRAW);
+    public BatchPostingResultDto postBatch(List<PostingRequest> requestedPostings, BatchMode mode) {
+        log.info("BankAccountService.postBatch(postings,mode) - post a batch of deposits and withdrawals. size: {}, mode: {}", requestedPostings.size(), mode);
+        List<PostingRequest> postings = requestedPostings.stream().map(this::canonicalPosting).toList();
 
-        return original.map(account -> {
-            BigDecimal updatedBalance = account.getBalance().subtract(withdrawalAmount);
-            return updateAccountBalance(accountId, updatedBalance);
-        });
+        List<PostingResultDto> results = postings.isEmpty() ? List.of() : dataFacade.applyPostings(postings, mode).stream()
+                .map(BankAccountService::toPostingResult)
+                .toList();
+        Map<PostingStatus, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(PostingResultDto::status, () -> new EnumMap<>(PostingStatus.class), Collectors.counting()));
+        return new BatchPostingResultDto(mode,
+                counts.getOrDefault(PostingStatus.APPLIED, 0L).intValue(),
+                counts.getOrDefault(PostingStatus.REJECTED, 0L).intValue(),
+                counts.getOrDefault(PostingStatus.ABORTED, 0L).intValue(),
+                results);
+    }
+
+    // Postings arriving as independent commands, e.g. from the message queue: each is validated on its own, so an
+    // invalid one is rejected without failing the rest, which are applied in order with BEST_EFFORT. Results
+    // are in request order.
+    public List<PostingResultDto> postEach(List<PostingRequest> requestedPostings) {
+        return postEach(requestedPostings, Collections.nCopies(requestedPostings.size(), null));
+    }
+
+    // idempotencyKeys holds a key or null per posting. A posting whose key is already stored on a transaction is
+    // not applied again but answered as applied, with the account's current balance; a key repeated within the
+    // batch gets the result of its first posting. A rejected posting commits nothing, so its key is not stored.
+    public List<PostingResultDto> postEach(List<PostingRequest> requestedPostings, List<String> idempotencyKeys) {
+        log.info("BankAccountService.postEach(postings,idempotencyKeys) - post independent deposits and withdrawals. size: {}", requestedPostings.size());
+        PostingResultDto[] results = new PostingResultDto[requestedPostings.size()];
+        Set<String> keys = idempotencyKeys.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, Transaction> stored = keys.isEmpty() ? Map.of() : dataFacade.findTransactionsByIdempotencyKeys(keys).stream()
+                .collect(Collectors.toMap(Transaction::getIdempotencyKey, Function.identity()));
+        Map<String, Integer> firstPositions = new HashMap<>();
+        List<PostingRequest> postings = new ArrayList<>(requestedPostings.size());
+        List<String> postingKeys = new ArrayList<>(requestedPostings.size());
+        List<Integer> positions = new ArrayList<>(requestedPostings.size());
+        for (int i = 0; i < requestedPostings.size(); i++) {
+            String key = idempotencyKeys.get(i);
+            try {
+                PostingRequest posting = canonicalPosting(requestedPostings.get(i));
+                if (key != null && stored.containsKey(key)) {
+                    results[i] = replayedPosting(posting, stored.get(key));
+                } else if (key == null || firstPositions.putIfAbsent(key, i) == null) {
+                    postings.add(posting);
+                    postingKeys.add(key);
+                    positions.add(i);
+                }
+            } catch (RuntimeException e) {
+                results[i] = toPostingResult(PostingOutcome.rejected(requestedPostings.get(i), e));
+            }
+        }
+        if (!postings.isEmpty()) {
+            List<PostingOutcome> outcomes = dataFacade.applyPostings(postings, postingKeys, BatchMode.BEST_EFFORT);
+            for (int i = 0; i < outcomes.size(); i++) {
+                results[positions.get(i)] = toPostingResult(outcomes.get(i));
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = results[firstPositions.get(idempotencyKeys.get(i))];
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // The update is a single statement, so there is no read-modify-write window to retry; a version mismatch
+    // only happens when the caller asked for a specific version.
+    private VersionedDto<BankAccountSummaryDto> updateBankAccount(String accountId, BankAccountUpdate update, String ifMatch) {
+        BankAccountSnapshot updated = dataFacade.updateBankAccount(accountId, update, EntityTags.expectedVersion(ifMatch))
+                .orElseThrow(() -> new EntityNotFoundException("Invalid bank account"));
+        return new VersionedDto<>(EntityTags.of(updated.version()), mapper.toSummaryDto(updated));
+    }
+
+    // Each chunk commits on its own, so a failure part way leaves earlier chunks applied; repeating the request
+    // finishes the job.
+    private BulkActivationResultDto setActive(BulkActivationRequest request, boolean active) {
+        if ((request.accountIds() == null) == (request.inactiveSince() == null)) {
+            throw new InvalidBulkActivationException();
+        }
+        if (request.inactiveSince() != null) {
+            return setActiveWhereInactiveSince(request.inactiveSince(), active);
+        }
+
+        Set<String> accountIds = new LinkedHashSet<>();
+        List<String> notFound = new ArrayList<>();
+        for (String requestedAccountId : request.accountIds()) {
+            String accountId = EmailValidator.canonicalize(requestedAccountId);
+            if (EmailValidator.isValid(accountId)) {
+                notFound.add(requestedAccountId);
+            } else {
+                accountIds.add(accountId);
+            }
+        }
+
+        List<String> chunkable = List.copyOf(accountIds);
+        int updated = 0;
+        int missing = 0;
+        for (int from = 0; from < chunkable.size(); from += BULK_ACTIVATION_CHUNK_SIZE) {
+            List<String> chunk = chunkable.subList(from, Math.min(from + BULK_ACTIVATION_CHUNK_SIZE, chunkable.size()));
+            ActivationOutcome outcome = dataFacade.setActive(chunk, active);
+            updated += outcome.updated().size();
+            missing += outcome.notFound().size();
+            notFound.addAll(outcome.notFound());
+        }
+        return new BulkActivationResultDto(active, updated, chunkable.size() - updated - missing, notFound);
+    }
+
+    private BulkActivationResultDto setActiveWhereInactiveSince(LocalDateTime since, boolean active) {
+        int updated = 0;
+        long afterId = 0;
+        List<AccountKey> chunk;
+        do {
+            chunk = dataFacade.setActiveWhereInactiveSince(since, active, afterId, BULK_ACTIVATION_CHUNK_SIZE);
+            updated += chunk.size();
+            afterId = chunk.stream().mapToLong(AccountKey::id).max().orElse(afterId);
+        } while (chunk.size() == BULK_ACTIVATION_CHUNK_SIZE);
+        return new BulkActivationResultDto(active, updated, 0, List.of());
     }
 
-    private void validateAccountId(String accountId) {
-        if (EmailValidator.isValid(accountId)) {
+    // A retry is answered from the recent keys in memory, or, when they have forgotten it, found through the unique
+    // key on the transaction row; that answer shows the account as it is now rather than right after the posting.
+    // A rejection is remembered in memory only, as it writes no row; a failure to find out why the posting was
+    // rejected is not, so a retry tries again. Postings with a key skip the coalescer, which does not carry keys.
+    private BankAccountSummaryDto post(String accountId, long amount, TransactionType type, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return mapper.toSummaryDto(post(accountId, amount, type));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException();
+        }
+        PostingRequest posting = new PostingRequest(accountId, type, amount);
+        Optional<BankAccountSummaryDto> replayed = idempotencyCache.replay(idempotencyKey, posting);
+        if (replayed.isPresent()) {
+            log.info("BankAccountService.post(accountId,amount,type,idempotencyKey) - answered a retried posting from memory. accountId: {}", accountId);
+            return replayed.get();
+        }
+        Optional<BankAccountSnapshot> posted;
+        BankAccountSummaryDto response;
+        try {
+            posted = dataFacade.postTransaction(accountId, amount, type, idempotencyKey);
+        } catch (DuplicateKeyException e) {
+            response = replayFromHistory(idempotencyKey, posting);
+            idempotencyCache.put(idempotencyKey, posting, response);
+            return response;
+        }
+        if (posted.isEmpty()) {
+            RuntimeException rejection;
+            try {
+                rejection = rejectedPosting(accountId, amount, type);
+            } catch (EntityNotFoundException | InactiveAccountException | InsufficientFundsException e) {
+                rejection = e;
+            }
+            idempotencyCache.putRejection(idempotencyKey, posting, rejection);
+            throw rejection;
+        }
+        response = mapper.toSummaryDto(posted.get());
+        idempotencyCache.put(idempotencyKey, posting, response);
+        return response;
+    }
+
+    private BankAccountSummaryDto replayFromHistory(String idempotencyKey, PostingRequest posting) {
+        Transaction transaction = dataFacade.findTransactionByIdempotencyKey(idempotencyKey)
+                .orElseThrow(IdempotencyKeyReusedException::new);
+        return replayFromHistory(transaction, posting);
+    }
+
+    private BankAccountSummaryDto replayFromHistory(Transaction transaction, PostingRequest posting) {
+        BankAccount account = dataFacade.findBankAccountByAccountId(posting.accountId())
+                .filter(bankAccount -> bankAccount.getId().equals(transaction.getBankAccountId()))
+                .orElseThrow(IdempotencyKeyReusedException::new);
+        if (transaction.getType() != posting.type() || Money.toMinorUnits(transaction.getAmount()) != posting.amount()) {
+            throw new IdempotencyKeyReusedException();
+        }
+        log.info("BankAccountService.replayFromHistory(transaction,posting) - answered a retried posting from its transaction. accountId: {}", posting.accountId());
+        return mapper.toSummaryDto(account);
+    }
+
+    // Like replayFromHistory, but a mismatch rejects only this posting of the batch.
+    private PostingResultDto replayedPosting(PostingRequest posting, Transaction transaction) {
+        try {
+            BankAccountSummaryDto account = replayFromHistory(transaction, posting);
+            return new PostingResultDto(posting.accountId(), posting.type(), Money.toBigDecimal(posting.amount()),
+                    PostingStatus.APPLIED, null, account.balance());
+        } catch (RuntimeException e) {
+            return toPostingResult(PostingOutcome.rejected(posting, e));
+        }
+    }
+
+    // Striped accounts skip the coalescer: it posts to the locked account row, the very contention that splitting
+    // the balance across sub-balances avoids.
+    private BankAccountSnapshot post(String accountId, long amount, TransactionType type) {
+        if (postingCoalescer.isEnabled() && !isStriped(accountId)) {
+            return postingCoalescer.post(new PostingRequest(accountId, type, amount));
+        }
+        return dataFacade.postTransaction(accountId, amount, type)
+                .orElseThrow(() -> rejectedPosting(accountId, amount, type));
+    }
+
+    private boolean isStriped(String accountId) {
+        return dataFacade.findBankAccountByAccountId(accountId)
+                .map(bankAccount -> bankAccount.getBalanceStripes() > 0)
+                .orElse(false);
+    }
+
+    private String canonicalAccountId(String accountId) {
+        String canonical = EmailValidator.canonicalize(accountId);
+        if (EmailValidator.isValid(canonical)) {
             throw new EmailValidationException();
         }
+        return canonical;
     }
 
     private void validateAccountExists(Optional<BankAccount> bankAccount) {
@@ -124,22 +483,41 @@ public class BankAccountService {
     }
 
     private void validateAccountActive(Optional<BankAccount> bankAccount) {
-        if (!bankAccount.get().isActive()) {
-            throw new InactiveAccountException();
-        }
+        BankAccountValidator.validateActive(bankAccount.get().isActive());
     }
 
-    private void validateSufficientFunds(Optional<BankAccount> bankAccount, double amount) {
-        double balance = bankAccount.get().getBalance().doubleValue();
-        double minimumBalance = bankAccount.get().getMinimumBalance().doubleValue();
-        if (balance - amount < minimumBalance) {
-            throw new InsufficientFundsException();
+    private void validateSufficientFunds(Optional<BankAccount> bankAccount, long amount) {
+        BankAccountValidator.validateSufficientFunds(Money.toMinorUnits(bankAccount.get().getTotalBalance()),
+                Money.toMinorUnits(bankAccount.get().getMinimumBalance()), amount);
+    }
+
+    private PostingRequest canonicalPosting(PostingRequest posting) {
+        String accountId = canonicalAccountId(posting.accountId());
+        if (posting.amount() <= 0) {
+            throw new InvalidAmountException();
         }
+        return new PostingRequest(accountId, posting.type(), posting.amount());
     }
 
-    private BankAccountDto updateAccountBalance(String accountId, BigDecimal newBalance) {
-        return dataFacade.updateBankAccount(accountId, List.of(Pair.of(BankAccountFields.BALANCE, newBalance.toString())))
-                .map(mapper::toDto)
-                .orElseThrow(() -> new EntityNotFoundException("Failed to update bank account balance"));
+    private static PostingResultDto toPostingResult(PostingOutcome outcome) {
+        PostingRequest request = outcome.request();
+        return new PostingResultDto(
+                request.accountId(),
+                request.type(),
+                Money.toBigDecimal(request.amount()),
+                outcome.status(),
+                outcome.error() == null ? null : outcome.error().getMessage(),
+                outcome.account() == null ? null : outcome.account().balance());
+    }
+
+    private RuntimeException rejectedPosting(String accountId, long amount, TransactionType type) {
+        Optional<BankAccount> account = dataFacade.findBankAccountByAccountId(accountId);
+        validateAccountExists(account);
+        validateAccountActive(account);
+        if (type == TransactionType.WITHDRAW) {
+            validateSufficientFunds(account, amount);
+            return new InsufficientFundsException();
+        }
+        return new InactiveAccountException();
     }
 }
\ No newline at end of file
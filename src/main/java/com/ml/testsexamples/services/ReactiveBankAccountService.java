@@ -0,0 +1,153 @@
+package com.ml.testsexamples.services;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.dto.TransactionCursor;
+import com.ml.testsexamples.dto.TransactionPageDto;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.exceptions.EmailValidationException;
+import com.ml.testsexamples.exceptions.InactiveAccountException;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.facades.ReactiveDataFacade;
+import com.ml.testsexamples.mappers.BankAccountMapper;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
+import com.ml.testsexamples.utils.Money;
+import com.ml.testsexamples.validators.BankAccountValidator;
+import com.ml.testsexamples.validators.EmailValidator;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBankAccountService {
+
+    private static final int MAX_TRANSACTIONS_PAGE_SIZE = 500;
+
+    private final ReactiveDataFacade dataFacade;
+    private final BankAccountMapper mapper;
+
+    public Mono<BankAccountSummaryDto> getAccountInfo(String requestedAccountId) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.getAccountInfo(accountId) - get info about bank account. accountId: {}", accountId);
+            return findExistingAccount(accountId).map(mapper::toSummaryDto);
+        });
+    }
+
+    public Mono<BankAccountDto> getAccountDetails(String requestedAccountId) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.getAccountDetails(accountId) - get info and transactions history about bank account. accountId: {}", accountId);
+            return findExistingAccount(accountId).flatMap(account -> dataFacade.findTransactions(account.id())
+                    .collectList()
+                    .map(transactions -> mapper.toDto(account, transactions)));
+        });
+    }
+
+    public Mono<TransactionPageDto> getTransactions(String requestedAccountId, TransactionHistoryRequest filter, String cursor, int limit) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.getTransactions(accountId,filter,cursor,limit) - get a page of bank account transactions. accountId: {}, filter: {}", accountId, filter);
+            int pageSize = Math.min(Math.max(limit, 1), MAX_TRANSACTIONS_PAGE_SIZE);
+            TransactionCursor pageCursor = TransactionCursor.decode(cursor);
+            return findExistingAccount(accountId)
+                    .flatMap(account -> dataFacade.findTransactionsPage(account.id(), filter, pageCursor, pageSize + 1).collectList())
+                    .map(transactions -> {
+                        boolean hasNext = transactions.size() > pageSize;
+                        List<Transaction> page = hasNext ? transactions.subList(0, pageSize) : transactions;
+                        String nextCursor = hasNext ? TransactionCursor.of(page.get(pageSize - 1)).encode() : null;
+                        return new TransactionPageDto(mapper.mapTransactions(page), nextCursor);
+                    });
+        });
+    }
+
+    public Mono<BankAccountDto> createAccount(BankAccountDto bankAccountDto) {
+        log.info("ReactiveBankAccountService.createAccount(bankAccount) - create bank account");
+        BankAccount bankAccount = mapper.toDao(bankAccountDto);
+        bankAccount.setAccountId(EmailValidator.canonicalize(bankAccount.getAccountId()));
+        return dataFacade.saveBankAccount(bankAccount).map(account -> mapper.toDto(account, List.of()));
+    }
+
+    public Mono<Void> deleteBankAccountByAccountId(String requestedAccountId) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.deleteBankAccountByAccountId(accountId) - delete bank account. accountId: {}", accountId);
+            return dataFacade.deleteBankAccountByAccountId(accountId);
+        });
+    }
+
+    public Mono<BankAccountSummaryDto> activateAccount(String requestedAccountId) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.activateAccount(accountId) - make a bank account active. accountId: {}", accountId);
+            return updateActive(accountId, true);
+        });
+    }
+
+    public Mono<BankAccountSummaryDto> deactivateAccount(String requestedAccountId) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.deactivateAccount(accountId) - make a bank account inactive. accountId: {}", accountId);
+            return updateActive(accountId, false);
+        });
+    }
+
+    public Mono<BankAccountSummaryDto> makeDeposit(String requestedAccountId, long amount) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.makeDeposit(accountId,amount) - make a deposit to bank account. accountId: {}, amountMinorUnits: {}", accountId, amount);
+            return post(accountId, amount, TransactionType.DEPOSIT);
+        });
+    }
+
+    public Mono<BankAccountSummaryDto> makeWithdraw(String requestedAccountId, long amount) {
+        return canonicalAccountId(requestedAccountId).flatMap(accountId -> {
+            log.info("ReactiveBankAccountService.makeWithdraw(id, amount) - make a withdraw for bank account. accountId: {}, amountMinorUnits: {}", accountId, amount);
+            return post(accountId, amount, TransactionType.WITHDRAW);
+        });
+    }
+
+    private Mono<BankAccountSummaryDto> updateActive(String accountId, boolean active) {
+        return dataFacade.updateBankAccount(accountId, BankAccountUpdate.activation(active))
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Invalid bank account")))
+                .map(mapper::toSummaryDto);
+    }
+
+    private Mono<BankAccountSummaryDto> post(String accountId, long amount, TransactionType type) {
+        return dataFacade.postTransaction(accountId, amount, type)
+                .switchIfEmpty(Mono.defer(() -> rejectedPosting(accountId, amount, type)))
+                .map(mapper::toSummaryDto);
+    }
+
+    private Mono<BankAccountSnapshot> rejectedPosting(String accountId, long amount, TransactionType type) {
+        return findExistingAccount(accountId).flatMap(account -> {
+            BankAccountValidator.validateActive(account.active());
+            if (type == TransactionType.WITHDRAW) {
+                BankAccountValidator.validateSufficientFunds(Money.toMinorUnits(account.balance()),
+                        Money.toMinorUnits(account.minimumBalance()), amount);
+                return Mono.error(new InsufficientFundsException());
+            }
+            return Mono.error(new InactiveAccountException());
+        });
+    }
+
+    private Mono<BankAccountSnapshot> findExistingAccount(String accountId) {
+        return dataFacade.findBankAccountByAccountId(accountId)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Invalid bank account")));
+    }
+
+    private Mono<String> canonicalAccountId(String accountId) {
+        return Mono.fromCallable(() -> {
+            String canonical = EmailValidator.canonicalize(accountId);
+            if (EmailValidator.isValid(canonical)) {
+                throw new EmailValidationException();
+            }
+            return canonical;
+        });
+    }
+}
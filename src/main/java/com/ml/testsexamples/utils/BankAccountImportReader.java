@@ -0,0 +1,136 @@
+package com.ml.testsexamples.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ml.testsexamples.dto.AccountImportErrorDto;
+import com.ml.testsexamples.enums.ImportFormat;
+import com.ml.testsexamples.requests.BankAccountImportRow;
+import com.ml.testsexamples.validators.EmailValidator;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Reads the accounts of a bulk import one line at a time, so the input is never held in memory. CSV lines are
+// accountId, firstName, lastName, balance, minimumBalance (the layout of tests-data.csv with the account id in
+// front, unquoted); NDJSON lines are one account document each. Account ids are canonicalized and checked like
+// everywhere else. A line that fails is counted and skipped, and the first MAX_ERRORS of them are kept to report
+// back. Blank lines are ignored.
+public class BankAccountImportReader implements Iterator<BankAccountImportRow>, Closeable {
+
+    public static final int MAX_ERRORS = 100;
+
+    // NUMERIC(10, 2) holds up to 99999999.99.
+    private static final long MAX_AMOUNT = 99_999_999_99L;
+    private static final int CSV_COLUMNS = 5;
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectReader rowReader;
+    private final List<AccountImportErrorDto> errors = new ArrayList<>();
+    private long lineNumber;
+    private long rejected;
+    private BankAccountImportRow next;
+
+    public BankAccountImportReader(InputStream input, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        // Lines may be whole BankAccountDto documents; what the import does not take is ignored.
+        this.rowReader = objectMapper.readerFor(BankAccountImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            String line;
+            while (next == null && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    next = readRow(line);
+                }
+            }
+            return next != null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public BankAccountImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BankAccountImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    public long rejected() {
+        return rejected;
+    }
+
+    public List<AccountImportErrorDto> errors() {
+        return errors;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Null when the line is rejected.
+    private BankAccountImportRow readRow(String line) {
+        BankAccountImportRow row;
+        try {
+            row = format == ImportFormat.CSV ? parseCsv(line) : rowReader.readValue(line);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return reject("Invalid amount");
+        } catch (IOException | RuntimeException e) {
+            return reject(format == ImportFormat.CSV
+                    ? "Expected accountId, firstName, lastName, balance, minimumBalance"
+                    : "Malformed account");
+        }
+
+        String accountId = EmailValidator.canonicalize(row.accountId());
+        if (EmailValidator.isValid(accountId)) {
+            return reject("Wrong format exception");
+        }
+        if (row.firstName() == null || row.firstName().isBlank() || row.lastName() == null || row.lastName().isBlank()) {
+            return reject("First name and last name are required");
+        }
+        if (row.balance() == null || row.minimumBalance() == null) {
+            return reject("Balance and minimum balance are required");
+        }
+        if (Math.abs(row.balance()) > MAX_AMOUNT || Math.abs(row.minimumBalance()) > MAX_AMOUNT) {
+            return reject("Amount out of range");
+        }
+        return new BankAccountImportRow(accountId, row.firstName().trim(), row.lastName().trim(), row.balance(), row.minimumBalance());
+    }
+
+    private static BankAccountImportRow parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != CSV_COLUMNS) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS + " columns");
+        }
+        return new BankAccountImportRow(columns[0], columns[1], columns[2],
+                Money.parse(columns[3].trim()), Money.parse(columns[4].trim()));
+    }
+
+    private BankAccountImportRow reject(String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new AccountImportErrorDto(lineNumber, message));
+        }
+        return null;
+    }
+}
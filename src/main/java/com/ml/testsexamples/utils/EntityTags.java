@@ -0,0 +1,58 @@
+package com.ml.testsexamples.utils;
+
+import com.ml.testsexamples.exceptions.PreconditionFailedException;
+
+// Entity tags of bank accounts are their version in quotes.
+public class EntityTags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match: true when any listed tag (or '*') matches the current version. Comparison is weak, so W/ tags
+    // match too.
+    public static boolean matches(String header, long version) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String tag : header.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(ANY) || parseVersion(trimmed, true) == version) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Match: the expected version, or null when the header is absent or '*'. Only a single tag is supported.
+    // Comparison is strong, so a weak tag never matches and fails the precondition.
+    public static Long expectedVersion(String header) {
+        if (header == null || header.isBlank() || header.trim().equals(ANY)) {
+            return null;
+        }
+        long version = parseVersion(header.trim(), false);
+        if (version < 0) {
+            throw new PreconditionFailedException();
+        }
+        return version;
+    }
+
+    private static long parseVersion(String tag, boolean weakAllowed) {
+        boolean weak = tag.startsWith(WEAK_PREFIX);
+        if (weak && !weakAllowed) {
+            return -1;
+        }
+        String value = weak ? tag.substring(WEAK_PREFIX.length()) : tag;
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value, 1, value.length() - 1, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ml.testsexamples.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts on the posting path are longs counting minor units (cents). BigDecimal only appears where an amount
+// meets a NUMERIC column or a JSON document. There is a single currency, whose scale matches NUMERIC(10, 2).
+public class Money {
+
+    public static final int SCALE = 2;
+    private static final long MINOR_UNITS_PER_MAJOR_UNIT = 100;
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    // Throws ArithmeticException when the amount has more fraction digits than the currency or does not fit a long.
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    // Parses a plain decimal such as "-250.5" straight into minor units. Exponents and fraction digits beyond
+    // the currency scale (other than trailing zeros) are rejected with NumberFormatException.
+    public static long parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long units = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a monetary amount: " + new String(chars, offset, length));
+            }
+            if (fractionDigits >= 0 && ++fractionDigits > SCALE) {
+                if (c != '0') {
+                    throw new NumberFormatException("Too many fraction digits: " + new String(chars, offset, length));
+                }
+                continue;
+            }
+            units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a monetary amount: " + new String(chars, offset, length));
+        }
+        for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+            units = Math.multiplyExact(units, 10);
+        }
+        return negative ? -units : units;
+    }
+
+    // Reads a JSON number (or numeric string) in major units into minor units without going through double.
+    public static class Deserializer extends JsonDeserializer<Long> {
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    return Math.multiplyExact(p.getLongValue(), MINOR_UNITS_PER_MAJOR_UNIT);
+                }
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return parseNumber(p);
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return parse(p.getText().trim());
+                }
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw ctxt.weirdStringException(p.getText(), Long.TYPE, e.getMessage());
+            }
+            return (Long) ctxt.handleUnexpectedToken(Long.TYPE, p);
+        }
+
+        // Exponent notation is rare enough to take the BigDecimal route.
+        private static long parseNumber(JsonParser p) throws IOException {
+            try {
+                return parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            } catch (NumberFormatException e) {
+                return toMinorUnits(p.getDecimalValue());
+            }
+        }
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(toBigDecimal(value));
+        }
+    }
+}
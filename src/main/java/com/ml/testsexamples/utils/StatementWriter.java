@@ -0,0 +1,73 @@
+package com.ml.testsexamples.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ml.testsexamples.dto.StatementLineDto;
+import com.ml.testsexamples.enums.StatementFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+// Writes statement lines to the response as they come, through one buffer: a CSV header and a row per line, or
+// one JSON document per line. Nothing is flushed until the buffer fills or the writer is closed.
+public class StatementWriter implements Closeable {
+
+    private static final String CSV_HEADER = "createdAt,type,amount,balance";
+
+    private final StatementFormat format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private final ObjectWriter lineWriter;
+
+    public StatementWriter(StatementFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == StatementFormat.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+            this.lineWriter = objectMapper.writerFor(StatementLineDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        } else {
+            this.generator = null;
+            this.lineWriter = null;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(StatementLineDto line) {
+        try {
+            if (format == StatementFormat.NDJSON) {
+                lineWriter.writeValue(generator, line);
+                generator.writeRaw('\n');
+            } else {
+                writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(line.createdAt()));
+                writer.write(',');
+                writer.write(line.type().name());
+                writer.write(',');
+                writer.write(line.amount().toPlainString());
+                writer.write(',');
+                writer.write(line.balance().toPlainString());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ml.testsexamples.validators;
+
+import com.ml.testsexamples.exceptions.InactiveAccountException;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+
+public class BankAccountValidator {
+    public static void validateActive(boolean active) {
+        if (!active) {
+            throw new InactiveAccountException();
+        }
+    }
+
+    // All amounts in minor units.
+    public static void validateSufficientFunds(long balance, long minimumBalance, long amount) {
+        if (balance - amount < minimumBalance) {
+            throw new InsufficientFundsException();
+        }
+    }
+}
@@ -1,9 +1,43 @@
 package com.ml.testsexamples.validators;
 
+import java.util.Locale;
+
 public class EmailValidator {
+
+    // Returns true when the email does NOT match ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$
     public static boolean isValid(String email) {
-        // Regular expression for email validation
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
-        return !email.matches(emailRegex);
+        if (email == null) {
+            return true;
+        }
+        int length = email.length();
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return true;
+                }
+                at = i;
+            } else if (at < 0 ? !isLocalPartChar(c) : !isDomainChar(c)) {
+                return true;
+            }
+        }
+        return at <= 0 || at == length - 1;
+    }
+
+    public static String canonicalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAlphanumeric(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isAlphanumeric(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+-- Accounts keep a running transaction count and the time of their last posting, so the summary endpoint does not
+-- have to load the history. The backfill derives both from the existing transactions.
+-- Run once against existing databases, before any other script in this directory.
+ALTER TABLE bank_account ADD COLUMN IF NOT EXISTS transaction_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bank_account ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMP;
+
+UPDATE bank_account
+SET transaction_count = activity.transaction_count,
+    last_activity_at  = activity.last_activity_at
+FROM (SELECT bank_account_id, count(*) AS transaction_count, max(created_at) AS last_activity_at
+      FROM transaction
+      GROUP BY bank_account_id) activity
+WHERE bank_account.id = activity.bank_account_id;
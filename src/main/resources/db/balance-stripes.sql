@@ -0,0 +1,13 @@
+-- Opt-in sub-balances for hot accounts. An account with balance_stripes = N keeps part of its balance in N rows
+-- of bank_account_balance_stripe; the visible balance is the base row plus their sum. Run once against existing databases.
+ALTER TABLE bank_account ADD COLUMN IF NOT EXISTS balance_stripes INT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS bank_account_balance_stripe
+(
+    bank_account_id   INT REFERENCES bank_account (id) ON DELETE CASCADE,
+    stripe            INT            NOT NULL,
+    balance           NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    transaction_count BIGINT         NOT NULL DEFAULT 0,
+    last_activity_at  TIMESTAMP,
+    PRIMARY KEY (bank_account_id, stripe)
+);
@@ -0,0 +1,3 @@
+-- Optimistic locking version of bank_account. Every writer bumps it, including the JDBC posting statements
+-- that bypass Hibernate, so it is safe to hand out as an ETag. Run once against existing databases.
+ALTER TABLE bank_account ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
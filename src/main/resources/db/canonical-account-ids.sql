@@ -0,0 +1,5 @@
+-- Account ids are now stored and looked up trimmed and lower-cased. Run once against existing databases;
+-- it fails on the unique constraint if two stored ids only differ by case, which must be resolved by hand.
+UPDATE bank_account
+SET account_id = lower(trim(account_id))
+WHERE account_id <> lower(trim(account_id));
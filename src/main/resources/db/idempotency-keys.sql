@@ -0,0 +1,7 @@
+-- Idempotency-Key of the request that posted a transaction. The unique index rejects a second posting with the same key
+-- even when the in-memory map of recent keys has already forgotten it; NULLs, postings without a key, never conflict.
+-- Run once against existing databases.
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS transaction_idempotency_key_idx
+    ON transaction (idempotency_key);
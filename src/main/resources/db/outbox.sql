@@ -0,0 +1,10 @@
+-- Events of committed changes waiting to be published to RabbitMQ by OutboxRelay, which deletes them once the broker
+-- has confirmed them. Run once against existing databases.
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id VARCHAR(255) NOT NULL,
+    type       VARCHAR(255) NOT NULL,
+    payload    TEXT         NOT NULL,
+    created_at TIMESTAMP    NOT NULL
+);
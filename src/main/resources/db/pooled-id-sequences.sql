@@ -0,0 +1,4 @@
+-- The entity id generators allocate ids in blocks of 50 (pooled optimizer), so the database sequences must
+-- advance by the same step. Run once against existing databases before deploying the pooled allocation.
+ALTER SEQUENCE IF EXISTS bank_account_id_sequence INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS transaction_id_sequence INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Deleted accounts are only marked, and stay hidden from every read until the background purge has removed their
+-- transactions and then the row. The partial index lets the purge find them without scanning live accounts.
+-- Run once against existing databases.
+ALTER TABLE bank_account ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS bank_account_deleted_at_idx
+    ON bank_account (deleted_at) WHERE deleted_at IS NOT NULL;
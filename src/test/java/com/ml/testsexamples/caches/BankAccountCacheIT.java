@@ -0,0 +1,103 @@
+package com.ml.testsexamples.caches;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.facades.DataFacade;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"bank-account.cache.enabled=true", "bank-account.cache.listen.enabled=true"})
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 10)
+public class BankAccountCacheIT {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private BankAccountCache bankAccountCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void clearCache() {
+        bankAccountCache.invalidateAll();
+    }
+
+    @Test
+    public void findBankAccountByAccountId_SecondReadServedFromCache() {
+        assertEquals(3500, dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getBalance().intValue());
+
+        setBalanceBehindTheCache(999);
+
+        assertEquals(3500, dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getBalance().intValue());
+    }
+
+    @Test
+    public void updateBankAccount_CacheUpdatedAfterCommit() {
+        dataFacade.findBankAccountByAccountId(ACCOUNT_ID);
+        dataFacade.updateBankAccount(ACCOUNT_ID, BankAccountUpdate.builder().balance(100_00L).build());
+
+        setBalanceBehindTheCache(999);
+
+        assertEquals(100, dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getBalance().intValue());
+    }
+
+    @Test
+    public void putAfterCommit_OlderSnapshotCommittedLast_NewerSnapshotKept() {
+        BankAccountSnapshot older = BankAccountSnapshot.of(dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get());
+        BankAccountSnapshot newer = older.posted(BigDecimal.valueOf(3600), LocalDateTime.now());
+
+        bankAccountCache.putAfterCommit(newer);
+        bankAccountCache.putAfterCommit(older);
+
+        assertEquals(3600, dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getBalance().intValue());
+    }
+
+    @Test
+    public void deleteBankAccountByAccountId_CacheEvicted() {
+        assertTrue(dataFacade.findBankAccountByAccountId(ACCOUNT_ID).isPresent());
+
+        dataFacade.deleteBankAccountByAccountId(ACCOUNT_ID);
+
+        assertFalse(dataFacade.findBankAccountByAccountId(ACCOUNT_ID).isPresent());
+    }
+
+    @Test
+    public void notificationFromAnotherNode_CacheEvicted() throws InterruptedException {
+        dataFacade.findBankAccountByAccountId(ACCOUNT_ID);
+        setBalanceBehindTheCache(777);
+
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", BankAccountCache.CHANNEL, "another-node:" + ACCOUNT_ID);
+
+        Optional<BankAccount> result = dataFacade.findBankAccountByAccountId(ACCOUNT_ID);
+        while (result.get().getBalance().intValue() != 777) {
+            Thread.sleep(50);
+            result = dataFacade.findBankAccountByAccountId(ACCOUNT_ID);
+        }
+        assertEquals(777, result.get().getBalance().intValue());
+    }
+
+    private void setBalanceBehindTheCache(int balance) {
+        jdbcTemplate.update("UPDATE bank_account SET balance = ? WHERE account_id = ?", balance, ACCOUNT_ID);
+    }
+}
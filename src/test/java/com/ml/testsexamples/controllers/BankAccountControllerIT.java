@@ -2,19 +2,24 @@ package com.ml.testsexamples.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.requests.PostingRequest;
 import com.ml.testsexamples.requests.TransactionRequest;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -113,8 +118,8 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(4500))
                 .andExpect(jsonPath("$.minimumBalance").value(1500))
                 .andExpect(jsonPath("$.active").value(false))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(0))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
@@ -131,8 +136,8 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(45000))
                 .andExpect(jsonPath("$.minimumBalance").value(-1500))
                 .andExpect(jsonPath("$.active").value(false))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(0))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
@@ -163,7 +168,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(9)
     void makeDepositToInactiveAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -178,7 +183,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(10)
     void makeWithdrawFromInactiveAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -193,7 +198,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(11)
     void makeDepositWithWrongFormatAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("john.doegmail.com", 500);
+        TransactionRequest request = new TransactionRequest("john.doegmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -208,7 +213,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(12)
     void makeWithdrawWithWrongFormatAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustiggmail.com", 500);
+        TransactionRequest request = new TransactionRequest("meir.lustiggmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -223,7 +228,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(13)
     void makeDepositWithNoExistsAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -238,7 +243,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(14)
     void makeWithdrawWithNoExistsAccountId() throws Exception {
-        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("no.exists@gmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -262,8 +267,8 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(4500))
                 .andExpect(jsonPath("$.minimumBalance").value(1500))
                 .andExpect(jsonPath("$.active").value(true))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(0))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
@@ -279,8 +284,8 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(45000))
                 .andExpect(jsonPath("$.minimumBalance").value(-1500))
                 .andExpect(jsonPath("$.active").value(true))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(0))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
@@ -311,7 +316,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(19)
     void makeDepositToFirstAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("john.doe@gmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -323,15 +328,15 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(5000))
                 .andExpect(jsonPath("$.minimumBalance").value(1500))
                 .andExpect(jsonPath("$.active").value(true))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(1))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
     @Test
     @Order(20)
     void makeDepositToSecondAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 500);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 500_00);
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -343,15 +348,15 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(45500))
                 .andExpect(jsonPath("$.minimumBalance").value(-1500))
                 .andExpect(jsonPath("$.active").value(true))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(1))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
     @Test
     @Order(21)
     void makeWithdrawFromSecondAccount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 47000);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 47000_00);
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -363,15 +368,15 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(-1500))
                 .andExpect(jsonPath("$.minimumBalance").value(-1500))
                 .andExpect(jsonPath("$.active").value(true))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(2))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
     @Test
     @Order(22)
     void makeWithdrawFromSecondAccountOverTheMinimum() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 1);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", 1_00);
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -386,7 +391,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(23)
     void makeWithdrawFromSecondAccountWithNegativeAmount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", -1);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", -1_00);
         mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -401,7 +406,7 @@ public class BankAccountControllerIT {
     @Test
     @Order(24)
     void makeDepositFromSecondAccountWithNegativeAmount() throws Exception {
-        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", -1);
+        TransactionRequest request = new TransactionRequest("meir.lustig@gmail.com", -1_00);
         mockMvc.perform(post("/api/v1/bank-accounts/deposit")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -425,8 +430,8 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(5000.00))
                 .andExpect(jsonPath("$.minimumBalance").value(1500))
                 .andExpect(jsonPath("$.active").value(false))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(1))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
@@ -442,8 +447,8 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.balance").value(-1500.0))
                 .andExpect(jsonPath("$.minimumBalance").value(-1500.0))
                 .andExpect(jsonPath("$.active").value(false))
-                .andExpect(jsonPath("$.transactions").isArray())
-                .andExpect(jsonPath("$.transactions").isEmpty())
+                .andExpect(jsonPath("$.transactionCount").value(2))
+                .andExpect(jsonPath("$.transactions").doesNotExist())
                 .andDo(document("{method-name}"));
     }
 
@@ -474,7 +479,8 @@ public class BankAccountControllerIT {
     @Test
     @Order(29)
     void getAccountInfoForFirstAccountAfterDeactivate() throws Exception {
-        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "meir.lustig@gmail.com"))
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "meir.lustig@gmail.com")
+                        .param("includeTransactions", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.accountId").value("meir.lustig@gmail.com"))
@@ -559,4 +565,376 @@ public class BankAccountControllerIT {
                 .andExpect(jsonPath("$.statusCode").value(400))
                 .andDo(document("{method-name}"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(35)
+    void postBatchWithNoExistsAccountId() throws Exception {
+        List<PostingRequest> postings = List.of(
+                new PostingRequest("no.exists@gmail.com", TransactionType.DEPOSIT, 500_00),
+                new PostingRequest("no.exists@gmail.com", TransactionType.WITHDRAW, 100_00));
+
+        mockMvc.perform(post("/api/v1/bank-accounts/transactions/batch")
+                        .param("mode", "BEST_EFFORT")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(postings)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.mode").value("BEST_EFFORT"))
+                .andExpect(jsonPath("$.applied").value(0))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[0].message").value("Invalid bank account"))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(36)
+    void postBatchAsNdjsonWithNoExistsAccountId() throws Exception {
+        String postings = objectMapper.writeValueAsString(new PostingRequest("no.exists@gmail.com", TransactionType.DEPOSIT, 500_00)) + "\n"
+                + objectMapper.writeValueAsString(new PostingRequest("no.exists@gmail.com", TransactionType.DEPOSIT, 100_00)) + "\n";
+
+        mockMvc.perform(post("/api/v1/bank-accounts/transactions/batch")
+                        .contentType("application/x-ndjson")
+                        .content(postings))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.mode").value("ALL_OR_NOTHING"))
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(37)
+    void postBatchWithNegativeAmount() throws Exception {
+        List<PostingRequest> postings = List.of(new PostingRequest("no.exists@gmail.com", TransactionType.DEPOSIT, -500_00));
+
+        mockMvc.perform(post("/api/v1/bank-accounts/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(postings)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Amount must be a positive number"))
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(38)
+    void createAccountForConditionalRequests() throws Exception {
+        BankAccountDto accountDto = new BankAccountDto("grover.cleveland@gmail.com", "Grover", "Cleveland", BigDecimal.valueOf(1000), BigDecimal.valueOf(0), false, List.of());
+        mockMvc.perform(post("/api/v1/bank-accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(accountDto)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @Order(39)
+    void getAccountInfoWithETag() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.accountId").value("grover.cleveland@gmail.com"))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(40)
+    void getAccountInfoWithMatchingIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(41)
+    void activateAccountWithStaleIfMatch() throws Exception {
+        mockMvc.perform(put("/api/v1/bank-accounts/{accountId}/activate", "grover.cleveland@gmail.com")
+                        .header(HttpHeaders.IF_MATCH, "\"5\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Bank account has been modified"))
+                .andExpect(jsonPath("$.statusCode").value(412))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(42)
+    void activateAccountWithCurrentIfMatch() throws Exception {
+        mockMvc.perform(put("/api/v1/bank-accounts/{accountId}/activate", "grover.cleveland@gmail.com")
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.active").value(true))
+                .andDo(document("{method-name}"));
+
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    @Order(43)
+    void setBalanceStripes() throws Exception {
+        mockMvc.perform(put("/api/v1/bank-accounts/{accountId}/balance-stripes", "grover.cleveland@gmail.com")
+                        .param("stripes", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value("grover.cleveland@gmail.com"))
+                .andExpect(jsonPath("$.balance").value(1000))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(44)
+    void makeDepositToStripedAccount() throws Exception {
+        TransactionRequest request = new TransactionRequest("grover.cleveland@gmail.com", 250_00);
+        mockMvc.perform(post("/api/v1/bank-accounts/deposit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1250))
+                .andExpect(jsonPath("$.transactionCount").value(1))
+                .andDo(document("{method-name}"));
+
+        mockMvc.perform(put("/api/v1/bank-accounts/{accountId}/balance-stripes", "grover.cleveland@gmail.com")
+                        .param("stripes", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1250))
+                .andExpect(jsonPath("$.transactionCount").value(1));
+    }
+
+    @Test
+    @Order(45)
+    void setBalanceStripesOutOfRange() throws Exception {
+        mockMvc.perform(put("/api/v1/bank-accounts/{accountId}/balance-stripes", "grover.cleveland@gmail.com")
+                        .param("stripes", "65"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Balance stripes must be between 0 and 64"))
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(46)
+    void patchAccount() throws Exception {
+        mockMvc.perform(patch("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"Stephen\",\"minimumBalance\":-500.5,\"active\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.firstName").value("Stephen"))
+                .andExpect(jsonPath("$.lastName").value("Cleveland"))
+                .andExpect(jsonPath("$.balance").value(1250))
+                .andExpect(jsonPath("$.minimumBalance").value(-500.5))
+                .andExpect(jsonPath("$.active").value(false))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(47)
+    void patchAccountWithUnpatchableMember() throws Exception {
+        mockMvc.perform(patch("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"lastName\":\"Grover\",\"balance\":1000000}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Patch may only set firstName, lastName, minimumBalance and active to non-null values"))
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Cleveland"));
+    }
+
+    @Test
+    @Order(48)
+    void patchAccountWithNullMember() throws Exception {
+        mockMvc.perform(patch("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"lastName\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(49)
+    void activateAccounts() throws Exception {
+        mockMvc.perform(put("/api/v1/bank-accounts/batch/activate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountIds\":[\"grover.cleveland@gmail.com\",\"nobody.here@gmail.com\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.unchanged").value(0))
+                .andExpect(jsonPath("$.notFound[0]").value("nobody.here@gmail.com"))
+                .andDo(document("{method-name}"));
+
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true));
+    }
+
+    @Test
+    @Order(50)
+    void deactivateAccountsWithoutSelection() throws Exception {
+        mockMvc.perform(put("/api/v1/bank-accounts/batch/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Either accountIds or inactiveSince must be given"))
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(51)
+    void makeDepositWithIdempotencyKey() throws Exception {
+        TransactionRequest request = new TransactionRequest("grover.cleveland@gmail.com", 100_00);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/v1/bank-accounts/deposit")
+                            .header("Idempotency-Key", "8e0f2f7c-2a4f-4d0e-9a57-3c1c1e7a0b51")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.accountId").value("grover.cleveland@gmail.com"))
+                    .andExpect(jsonPath("$.balance").value(1350))
+                    .andDo(document("{method-name}"));
+        }
+
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1350));
+    }
+
+    @Test
+    @Order(52)
+    void makeWithdrawWithReusedIdempotencyKey() throws Exception {
+        TransactionRequest request = new TransactionRequest("grover.cleveland@gmail.com", 100_00);
+        mockMvc.perform(post("/api/v1/bank-accounts/withdraw")
+                        .header("Idempotency-Key", "8e0f2f7c-2a4f-4d0e-9a57-3c1c1e7a0b51")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used for a different request"))
+                .andExpect(jsonPath("$.statusCode").value(422))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(53)
+    void getStatementAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/statement", "grover.cleveland@gmail.com"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement.csv\""))
+                .andExpect(content().string(matchesPattern("createdAt,type,amount,balance\n"
+                        + "[^,]+,DEPOSIT,250.00,1250.00\n"
+                        + "[^,]+,DEPOSIT,100.00,1350.00\n")))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(54)
+    void getStatementAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/statement", "grover.cleveland@gmail.com")
+                        .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(matchesPattern(
+                        "\\{\"createdAt\":\"[^\"]+\",\"type\":\"DEPOSIT\",\"amount\":250.00,\"balance\":1250.00}\n"
+                        + "\\{\"createdAt\":\"[^\"]+\",\"type\":\"DEPOSIT\",\"amount\":100.00,\"balance\":1350.00}\n")))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(55)
+    void getStatementBeforeFirstTransaction() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/statement", "grover.cleveland@gmail.com")
+                        .param("to", "2000-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("createdAt,type,amount,balance\n"));
+    }
+
+    @Test
+    @Order(56)
+    void getStatementWithUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/statement", "grover.cleveland@gmail.com")
+                        .param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Statement format must be csv or ndjson"))
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andDo(document("{method-name}"));
+    }
+
+    @Test
+    @Order(57)
+    void getStatementForNoExistsAccount() throws Exception {
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}/statement", "no.exists@gmail.com"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Invalid bank account"))
+                .andExpect(jsonPath("$.statusCode").value(404));
+    }
+
+    @Test
+    @Order(58)
+    void importAccountsAsCsv() throws Exception {
+        String accounts = """
+                chester.arthur@gmail.com, Chester, Arthur, 700, 100
+                chesterarthur, Chester, Arthur, 700, 100
+                """;
+
+        mockMvc.perform(post("/api/v1/bank-accounts/import")
+                        .contentType("text/csv")
+                        .content(accounts))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Wrong format exception"))
+                .andDo(document("{method-name}"));
+
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "chester.arthur@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(700))
+                .andExpect(jsonPath("$.minimumBalance").value(100))
+                .andExpect(jsonPath("$.active").value(false));
+    }
+
+    @Test
+    @Order(59)
+    void importAccountsAsNdjson() throws Exception {
+        String accounts = objectMapper.writeValueAsString(new BankAccountDto("grover.cleveland@gmail.com", "Stephen Grover", "Cleveland",
+                BigDecimal.valueOf(5000), BigDecimal.valueOf(0), true, List.of())) + "\n";
+
+        mockMvc.perform(post("/api/v1/bank-accounts/import")
+                        .contentType("application/x-ndjson")
+                        .content(accounts))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(0))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.rejected").value(0))
+                .andDo(document("{method-name}"));
+
+        mockMvc.perform(get("/api/v1/bank-accounts/{accountId}", "grover.cleveland@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Stephen Grover"))
+                .andExpect(jsonPath("$.balance").value(1350));
+    }
+}
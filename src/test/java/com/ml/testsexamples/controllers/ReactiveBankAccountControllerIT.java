@@ -0,0 +1,120 @@
+package com.ml.testsexamples.controllers;
+
+import com.ml.testsexamples.requests.TransactionRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ReactiveBankAccountControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void getAccountInfo() {
+        webTestClient.get().uri("/api/v1/bank-accounts/{accountId}", "theodore.roosevelt@gmail.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountId").isEqualTo("theodore.roosevelt@gmail.com")
+                .jsonPath("$.firstName").isEqualTo("Theodore")
+                .jsonPath("$.lastName").isEqualTo("Roosevelt")
+                .jsonPath("$.balance").isEqualTo(3500.0)
+                .jsonPath("$.active").isEqualTo(true);
+    }
+
+    @Test
+    void getAccountInfoOfNotExistingAccount() {
+        webTestClient.get().uri("/api/v1/bank-accounts/{accountId}", "not.existing@gmail.com")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid bank account")
+                .jsonPath("$.statusCode").isEqualTo(404);
+    }
+
+    @Test
+    void getAccountInfoWithWrongFormatAccountId() {
+        webTestClient.get().uri("/api/v1/bank-accounts/{accountId}", "theodore.roosevelt")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void makeDeposit() {
+        webTestClient.post().uri("/api/v1/bank-accounts/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TransactionRequest("theodore.roosevelt@gmail.com", 100_00))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountId").isEqualTo("theodore.roosevelt@gmail.com")
+                .jsonPath("$.balance").isEqualTo(3600.0);
+
+        assertEquals(3600, jdbcTemplate.queryForObject("""
+                SELECT (payload::json -> 'account' ->> 'balance')::numeric::int FROM outbox_event
+                WHERE account_id = ? AND type = 'TRANSACTION_POSTED'
+                """, Integer.class, "theodore.roosevelt@gmail.com"));
+    }
+
+    @Test
+    void makeWithdrawWithInsufficientFunds() {
+        webTestClient.post().uri("/api/v1/bank-accounts/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TransactionRequest("theodore.roosevelt@gmail.com", 2500_00))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.statusCode").isEqualTo(400);
+    }
+
+    // 3000 on the base row and 250 on each of two sub-balances: the withdrawal only clears the minimum against the total.
+    @Test
+    void makeWithdrawFromStripedAccount() {
+        jdbcTemplate.update("UPDATE bank_account SET balance = 3000, balance_stripes = 2 WHERE account_id = ?", "theodore.roosevelt@gmail.com");
+        jdbcTemplate.update("""
+                INSERT INTO bank_account_balance_stripe (bank_account_id, stripe, balance)
+                SELECT id, stripe, 250 FROM bank_account, generate_series(0, 1) AS stripe
+                WHERE account_id = ?
+                """, "theodore.roosevelt@gmail.com");
+
+        webTestClient.post().uri("/api/v1/bank-accounts/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TransactionRequest("theodore.roosevelt@gmail.com", 1900_00))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.balance").isEqualTo(1600.0);
+
+        webTestClient.get().uri("/api/v1/bank-accounts/{accountId}", "theodore.roosevelt@gmail.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.balance").isEqualTo(1600.0);
+    }
+
+    @Test
+    void makeDepositToInactiveAccount() {
+        webTestClient.post().uri("/api/v1/bank-accounts/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TransactionRequest("franklin.benjamin@gmail.com", 100_00))
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 60)
+public class BalanceStripesIT {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+    private static final int THREADS = 32;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void postTransaction_ConcurrentDepositsAndWithdrawals_NoMoneyLost() throws Exception {
+        dataFacade.setBalanceStripes(ACCOUNT_ID, 8);
+
+        List<TransactionType> types = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            types.add(i % 3 == 2 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT);
+        }
+        List<Future<Optional<BankAccountSnapshot>>> results = postConcurrently(types, 15_00);
+
+        int applied = 0;
+        for (Future<Optional<BankAccountSnapshot>> result : results) {
+            applied += result.get().isPresent() ? 1 : 0;
+        }
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT 3500 + coalesce(sum(CASE WHEN type = 'DEPOSIT' THEN amount ELSE -amount END), 0) FROM transaction WHERE bank_account_id = 1",
+                BigDecimal.class);
+        BankAccount account = dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get();
+        assertEquals(0, ledger.compareTo(account.getTotalBalance()));
+        assertEquals(applied, account.getTotalTransactionCount());
+        assertEquals(applied, jdbcTemplate.queryForObject("SELECT count(*) FROM transaction WHERE bank_account_id = 1", Integer.class));
+        assertTrue(account.getTotalBalance().compareTo(account.getMinimumBalance()) >= 0);
+    }
+
+    @Test
+    public void postTransaction_ConcurrentWithdrawalsFromStripes_MinimumBalanceEnforcedExactly() throws Exception {
+        dataFacade.setBalanceStripes(ACCOUNT_ID, 8);
+        for (int i = 0; i < 16; i++) {
+            dataFacade.postTransaction(ACCOUNT_ID, 100_00, TransactionType.DEPOSIT);
+        }
+
+        List<Future<Optional<BankAccountSnapshot>>> results = postConcurrently(Collections.nCopies(30, TransactionType.WITHDRAW), 250_00);
+
+        int applied = 0;
+        for (Future<Optional<BankAccountSnapshot>> result : results) {
+            applied += result.get().isPresent() ? 1 : 0;
+        }
+        assertEquals(14, applied);
+        assertEquals(1600, dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getTotalBalance().intValue());
+    }
+
+    @Test
+    public void setBalanceStripes_TurnedOff_SubBalancesFoldedIntoAccount() {
+        dataFacade.setBalanceStripes(ACCOUNT_ID, 8);
+        for (int i = 0; i < 10; i++) {
+            dataFacade.postTransaction(ACCOUNT_ID, 50_00, TransactionType.DEPOSIT);
+        }
+        long stripedVersion = dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getEntityVersion();
+
+        BankAccountSnapshot restriped = dataFacade.setBalanceStripes(ACCOUNT_ID, 0).get();
+
+        assertEquals(0, restriped.balanceStripes());
+        assertEquals(4000, restriped.balance().intValue());
+        assertEquals(10, restriped.transactionCount());
+        assertTrue(restriped.version() > stripedVersion);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM bank_account_balance_stripe", Integer.class));
+        assertEquals(4000, jdbcTemplate.queryForObject("SELECT balance FROM bank_account WHERE id = 1", Integer.class));
+    }
+
+    private List<Future<Optional<BankAccountSnapshot>>> postConcurrently(List<TransactionType> types, long amount) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Optional<BankAccountSnapshot>>> results = new ArrayList<>(types.size());
+            for (TransactionType type : types) {
+                results.add(executor.submit(() -> dataFacade.postTransaction(ACCOUNT_ID, amount, type)));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(50, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.requests.BankAccountImportRow;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 30)
+public class BankAccountImporterIT {
+
+    @Autowired
+    private BankAccountImporter importer;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importAccounts_NewAndExistingAccounts_InsertedOrUpdatedWithEvents() {
+        dataFacade.saveBankAccount(BankAccount.builder()
+                .accountId("meir.lustig@gmail.com")
+                .firstName("Meir")
+                .lastName("L.")
+                .balance(BigDecimal.valueOf(100))
+                .minimumBalance(BigDecimal.ZERO)
+                .active(true)
+                .build());
+
+        AccountImportOutcome outcome = importer.importAccounts(List.of(
+                new BankAccountImportRow("meir.lustig@gmail.com", "Meir", "Lustig", 5030_00L, 1530_00L),
+                new BankAccountImportRow("miki.cohen@gmail.com", "Miki", "Kohen", 10830_00L, -1530_00L),
+                new BankAccountImportRow("miki.cohen@gmail.com", "Miki", "Cohen, Jr.", 10830_00L, -1530_00L)).iterator());
+
+        assertEquals(new AccountImportOutcome(1, 1, 0), outcome);
+
+        BankAccount updated = dataFacade.findBankAccountByAccountId("meir.lustig@gmail.com").get();
+        assertEquals("Lustig", updated.getLastName());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(updated.getBalance()));
+        assertEquals(0, BigDecimal.valueOf(1530).compareTo(updated.getMinimumBalance()));
+        assertTrue(updated.isActive());
+        assertEquals(1, updated.getVersion());
+
+        BankAccount inserted = dataFacade.findBankAccountByAccountId("miki.cohen@gmail.com").get();
+        assertEquals("Cohen, Jr.", inserted.getLastName());
+        assertEquals(0, BigDecimal.valueOf(10830).compareTo(inserted.getBalance()));
+        assertEquals(0, BigDecimal.valueOf(-1530).compareTo(inserted.getMinimumBalance()));
+        assertFalse(inserted.isActive());
+
+        assertEquals(List.of("meir.lustig@gmail.com:ACCOUNT_CREATED", "meir.lustig@gmail.com:ACCOUNT_UPDATED", "miki.cohen@gmail.com:ACCOUNT_CREATED"),
+                jdbcTemplate.queryForList("SELECT account_id || ':' || type FROM outbox_event ORDER BY account_id, id", String.class));
+        assertEquals("miki.cohen@gmail.com", jdbcTemplate.queryForObject(
+                "SELECT payload::json ->> 'accountId' FROM outbox_event WHERE type = 'ACCOUNT_CREATED' AND account_id = 'miki.cohen@gmail.com'", String.class));
+        assertEquals("Lustig", jdbcTemplate.queryForObject(
+                "SELECT payload::json -> 'account' ->> 'lastName' FROM outbox_event WHERE type = 'ACCOUNT_UPDATED'", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT (payload::json -> 'account' ->> 'version')::int FROM outbox_event WHERE type = 'ACCOUNT_UPDATED'", Integer.class));
+    }
+
+    @Test
+    public void importAccounts_DeletedAccount_LeftAloneAndRejected() {
+        dataFacade.saveBankAccount(BankAccount.builder()
+                .accountId("meir.lustig@gmail.com")
+                .firstName("Meir")
+                .lastName("L.")
+                .balance(BigDecimal.valueOf(100))
+                .minimumBalance(BigDecimal.ZERO)
+                .active(true)
+                .build());
+        dataFacade.deleteBankAccountByAccountId("meir.lustig@gmail.com");
+
+        AccountImportOutcome outcome = importer.importAccounts(List.of(
+                new BankAccountImportRow("meir.lustig@gmail.com", "Meir", "Lustig", 5030_00L, 1530_00L),
+                new BankAccountImportRow("miki.cohen@gmail.com", "Miki", "Cohen", 10830_00L, -1530_00L)).iterator());
+
+        assertEquals(new AccountImportOutcome(1, 0, 1), outcome);
+        assertEquals("L.", jdbcTemplate.queryForObject(
+                "SELECT last_name FROM bank_account WHERE account_id = 'meir.lustig@gmail.com'", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_event WHERE type = 'ACCOUNT_UPDATED'", Integer.class));
+    }
+
+    @Test
+    public void importAccounts_InputFailsWhileCopying_NothingImported() {
+        Iterator<BankAccountImportRow> rows = List.of(
+                new BankAccountImportRow("meir.lustig@gmail.com", "Meir", "Lustig", 5030_00L, 1530_00L),
+                new BankAccountImportRow("miki.cohen@gmail.com", "Miki", "Cohen", null, -1530_00L)).iterator();
+
+        assertThrows(RuntimeException.class, () -> importer.importAccounts(rows));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM bank_account", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_event", Integer.class));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.repositories.BankAccountPurgeRepository;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 30)
+public class BankAccountPurgerIT {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private BankAccountPurgeRepository purgeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void purgeBatch_DeletedAccount_HistoryThenAccountRemovedInBatches() {
+        dataFacade.setBalanceStripes(ACCOUNT_ID, 2);
+        for (int i = 0; i < 5; i++) {
+            dataFacade.postTransaction(ACCOUNT_ID, 10_00, TransactionType.DEPOSIT);
+        }
+        dataFacade.deleteBankAccountByAccountId(ACCOUNT_ID);
+
+        assertTrue(dataFacade.findBankAccountByAccountId(ACCOUNT_ID).isEmpty());
+        assertTrue(dataFacade.postTransaction(ACCOUNT_ID, 10_00, TransactionType.DEPOSIT).isEmpty());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT count(*) FROM transaction WHERE bank_account_id = 1", Integer.class));
+
+        BankAccountPurger purger = new BankAccountPurger(false, 2, Duration.ZERO, Duration.ZERO, purgeRepository);
+        int batches = 0;
+        while (purger.purgeBatch()) {
+            batches++;
+        }
+
+        assertEquals(4, batches);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM transaction", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM bank_account_balance_stripe", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM bank_account WHERE id = 1", Integer.class));
+        assertTrue(dataFacade.findBankAccountByAccountId("franklin.benjamin@gmail.com").isPresent());
+    }
+
+    @Test
+    public void purgeBatch_NoDeletedAccount_NothingToDo() {
+        BankAccountPurger purger = new BankAccountPurger(false, 2, Duration.ZERO, Duration.ZERO, purgeRepository);
+
+        assertFalse(purger.purgeBatch());
+        assertEquals(2, dataFacade.findAllBankAccounts().size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Counts the statements Hibernate prepares: with pooled ids and JDBC batching, saving ROWS entities takes one
+// sequence call and one batch per BATCH_SIZE rows instead of one of each per row. Single saves each commit on
+// their own, so only the sequence calls are shared between them.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 60)
+public class DataFacadeBatchInsertIT {
+
+    private static final int ROWS = 2000;
+    private static final int BATCH_SIZE = 50;
+    private static final long MAX_STATEMENTS = 2L * (ROWS / BATCH_SIZE + 1);
+    private static final int SINGLE_ROWS = 500;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void saveTransaction_IdsAllocatedInPooledBlocks() {
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            dataFacade.saveTransaction(1L, BigDecimal.ONE, TransactionType.DEPOSIT);
+        }
+
+        assertEquals(SINGLE_ROWS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= SINGLE_ROWS + SINGLE_ROWS / BATCH_SIZE + 1,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+        BankAccount account = dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get();
+        assertEquals(SINGLE_ROWS, account.getTransactionCount());
+    }
+
+    @Test
+    public void saveBankAccounts_InsertedInPooledBatches() {
+        List<BankAccount> accounts = IntStream.range(0, ROWS)
+                .mapToObj(i -> BankAccount.builder()
+                        .accountId("batch.account." + i + "@gmail.com")
+                        .firstName("Batch")
+                        .lastName("Account")
+                        .balance(BigDecimal.ZERO)
+                        .minimumBalance(BigDecimal.ZERO)
+                        .active(true)
+                        .build())
+                .toList();
+
+        List<BankAccount> result = dataFacade.saveBankAccounts(accounts);
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+        assertEquals(ROWS, result.stream().map(BankAccount::getId).distinct().count());
+    }
+}
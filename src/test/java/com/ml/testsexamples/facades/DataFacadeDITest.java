@@ -1,5 +1,6 @@
 package com.ml.testsexamples.facades;
 
+import com.ml.testsexamples.caches.BankAccountCache;
 import com.ml.testsexamples.dao.BankAccount;
 import com.ml.testsexamples.dao.BankAccountParameterResolver;
 import com.ml.testsexamples.repositories.BankAccountRepository;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
 
 import java.time.LocalDateTime;
@@ -26,6 +28,9 @@ public class DataFacadeDITest {
     @Mock
     private BankAccountRepository repository;
 
+    @Spy
+    private BankAccountCache bankAccountCache = BankAccountCache.disabled();
+
     @InjectMocks
     private DataFacade dataFacade;
 
@@ -1,20 +1,32 @@
 package com.ml.testsexamples.facades;
 
 import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dao.Transaction;
 import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.enums.PostingStatus;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.exceptions.InactiveAccountException;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.exceptions.PreconditionFailedException;
+import com.ml.testsexamples.repositories.BankAccountPostingRepository.AccountKey;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.PostingRequest;
 import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.util.Pair;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -139,40 +151,199 @@ public class DataFacadeIT {
         assertInstanceOf(LocalDateTime.class, createdAt);
         assertInstanceOf(LocalDateTime.class, updatedAt);
 
-        result = dataFacade.updateBankAccount("franklin.benjamin@gmail.com", List.of(Pair.of(BankAccountFields.FIRST_NAME, "Meir"),
-                Pair.of(BankAccountFields.LAST_NAME, "Roth"), Pair.of(BankAccountFields.BALANCE, "10000"),
-                Pair.of(BankAccountFields.MINIMUM_BALANCE, "0"), Pair.of(BankAccountFields.ACTIVE, "true")));
+        long version = result.get().getEntityVersion();
+
+        Optional<BankAccountSnapshot> updated = dataFacade.updateBankAccount("franklin.benjamin@gmail.com", BankAccountUpdate.builder()
+                .firstName("Meir")
+                .lastName("Roth")
+                .balance(10000_00L)
+                .minimumBalance(0L)
+                .active(true)
+                .build());
+
+        assertTrue(updated.isPresent());
+        assertEquals(2L, updated.get().id());
+        assertEquals("franklin.benjamin@gmail.com", updated.get().accountId());
+        assertEquals("Meir", updated.get().firstName());
+        assertEquals("Roth", updated.get().lastName());
+        assertEquals(10000, updated.get().balance().intValue());
+        assertEquals(0, updated.get().minimumBalance().intValue());
+        assertTrue(updated.get().active());
+        assertEquals(version + 1, updated.get().version());
+
+        assertEquals(createdAt, updated.get().createdAt());
+        assertNotEquals(updatedAt, updated.get().updatedAt());
+    }
+
+    @Test
+    public void updateBankAccount_OnlyActive_OtherColumnsUntouched() {
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("franklin.benjamin@gmail.com", BankAccountUpdate.activation(true));
 
         assertTrue(result.isPresent());
-        assertEquals(2L, result.get().getId());
-        assertEquals("franklin.benjamin@gmail.com", result.get().getAccountId());
-        assertEquals("Meir", result.get().getFirstName());
-        assertEquals("Roth", result.get().getLastName());
-        assertEquals(10000, result.get().getBalance().intValue());
-        assertEquals(0, result.get().getMinimumBalance().intValue());
-        assertTrue(result.get().isActive());
-        assertInstanceOf(LocalDateTime.class, result.get().getCreatedAt());
-        assertInstanceOf(LocalDateTime.class, result.get().getUpdatedAt());
+        assertTrue(result.get().active());
+        assertEquals("Franklin", result.get().firstName());
+        assertEquals("Benjamin", result.get().lastName());
+        assertEquals(0, result.get().balance().intValue());
+        assertEquals(-1000, result.get().minimumBalance().intValue());
+    }
+
+    @Test
+    public void updateBankAccount_StaleExpectedVersion_PreconditionFailedException() {
+        long version = dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get().getEntityVersion();
 
-        assertEquals(createdAt, result.get().getCreatedAt());
-        assertNotEquals(updatedAt, result.get().getUpdatedAt());
+        assertThrows(PreconditionFailedException.class, () ->
+                dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false), version + 1));
+    }
+
+    @Test
+    public void updateBankAccount_CurrentExpectedVersion_VersionIncremented() {
+        long version = dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get().getEntityVersion();
+
+        Optional<BankAccountSnapshot> result =
+                dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false), version);
+
+        assertTrue(result.isPresent());
+        assertFalse(result.get().active());
+        assertEquals(version + 1, result.get().version());
     }
 
     @Test
     public void updateBankAccount_TryToUpdateUnauthorizedField_IllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () ->
-                dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ID, "1000"), Pair.of(BankAccountFields.BALANCE, "8500"))));
+                dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.of(Map.of(BankAccountFields.ID, "1000", BankAccountFields.BALANCE, "8500"))));
     }
 
     @Test
     public void updateBankAccount_TryToUpdateBalanceFieldForNotExistsAccountId_EmptyOptional() {
-        Optional<BankAccount> result =
-                dataFacade.updateBankAccount("fake.mail@gmail.com",
-                        List.of(Pair.of(BankAccountFields.BALANCE, "1000"),
-                                Pair.of(BankAccountFields.BALANCE, "15000")));
+        Optional<BankAccountSnapshot> result =
+                dataFacade.updateBankAccount("fake.mail@gmail.com", BankAccountUpdate.builder().balance(15000_00L).build());
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    public void setActive_AccountIds_OnlyChangedAccountsWritten() {
+        long franklinVersion = dataFacade.findBankAccountByAccountId("franklin.benjamin@gmail.com").get().getEntityVersion();
+
+        ActivationOutcome result = dataFacade.setActive(
+                List.of("theodore.roosevelt@gmail.com", "franklin.benjamin@gmail.com", "fake.mail@gmail.com"), false);
+
+        assertEquals(List.of("theodore.roosevelt@gmail.com"), result.updated());
+        assertEquals(List.of("fake.mail@gmail.com"), result.notFound());
+        assertFalse(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get().isActive());
+        assertEquals(franklinVersion, dataFacade.findBankAccountByAccountId("franklin.benjamin@gmail.com").get().getEntityVersion());
+    }
+
+    @Test
+    public void setActiveWhereInactiveSince_NoActivitySince_ChunkedByPrimaryKey() {
+        dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false));
+        LocalDateTime since = LocalDateTime.now().plusDays(1);
+
+        List<AccountKey> first = dataFacade.setActiveWhereInactiveSince(since, true, 0, 1);
+        List<AccountKey> second = dataFacade.setActiveWhereInactiveSince(since, true, first.get(0).id(), 1);
+        List<AccountKey> third = dataFacade.setActiveWhereInactiveSince(since, true, second.get(0).id(), 1);
+
+        assertEquals(List.of(new AccountKey(1L, "theodore.roosevelt@gmail.com")), first);
+        assertEquals(List.of(new AccountKey(2L, "franklin.benjamin@gmail.com")), second);
+        assertTrue(third.isEmpty());
+        assertTrue(dataFacade.setActiveWhereInactiveSince(since.minusYears(1), false, 0, 10).isEmpty());
+    }
+
+    @Test
+    public void postTransaction_DepositToActiveAccount_BalanceUpdatedAndTransactionRecorded() {
+        Optional<BankAccountSnapshot> result =
+                dataFacade.postTransaction("theodore.roosevelt@gmail.com", 500_00, TransactionType.DEPOSIT);
+
+        assertTrue(result.isPresent());
+        assertEquals(1L, result.get().id());
+        assertEquals(4000, result.get().balance().intValue());
+        assertEquals(1500, result.get().minimumBalance().intValue());
+        assertTrue(result.get().active());
+    }
+
+    @Test
+    public void postTransaction_WithdrawBelowMinimumBalance_EmptyOptional() {
+        Optional<BankAccountSnapshot> result =
+                dataFacade.postTransaction("theodore.roosevelt@gmail.com", 2001_00, TransactionType.WITHDRAW);
+        assertFalse(result.isPresent());
+
+        result = dataFacade.postTransaction("theodore.roosevelt@gmail.com", 2000_00, TransactionType.WITHDRAW);
+        assertTrue(result.isPresent());
+        assertEquals(1500, result.get().balance().intValue());
+    }
+
+    @Test
+    public void postTransaction_DepositToInactiveAccount_EmptyOptional() {
+        Optional<BankAccountSnapshot> result =
+                dataFacade.postTransaction("franklin.benjamin@gmail.com", 500_00, TransactionType.DEPOSIT);
         assertFalse(result.isPresent());
     }
 
+    @Test
+    public void postTransaction_DepositToNotExistsAccountId_EmptyOptional() {
+        Optional<BankAccountSnapshot> result =
+                dataFacade.postTransaction("fake.mail@gmail.com", 500_00, TransactionType.DEPOSIT);
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    public void applyPostings_BestEffort_RejectedItemsSkipped() {
+        List<PostingRequest> postings = List.of(
+                new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 500_00),
+                new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, 2500_00),
+                new PostingRequest("franklin.benjamin@gmail.com", TransactionType.DEPOSIT, 100_00),
+                new PostingRequest("fake.mail@gmail.com", TransactionType.DEPOSIT, 100_00),
+                new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, 2000_00));
+
+        List<PostingOutcome> result = dataFacade.applyPostings(postings, BatchMode.BEST_EFFORT);
+
+        assertEquals(5, result.size());
+        assertEquals(PostingStatus.APPLIED, result.get(0).status());
+        assertEquals(4000, result.get(0).account().balance().intValue());
+        assertEquals(PostingStatus.REJECTED, result.get(1).status());
+        assertInstanceOf(InsufficientFundsException.class, result.get(1).error());
+        assertEquals(PostingStatus.REJECTED, result.get(2).status());
+        assertInstanceOf(InactiveAccountException.class, result.get(2).error());
+        assertEquals(PostingStatus.REJECTED, result.get(3).status());
+        assertInstanceOf(EntityNotFoundException.class, result.get(3).error());
+        assertEquals(PostingStatus.APPLIED, result.get(4).status());
+        assertEquals(2000, result.get(4).account().balance().intValue());
+
+        BankAccount account = dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get();
+        assertEquals(2000, account.getBalance().intValue());
+        assertEquals(2, account.getTransactionCount());
+    }
+
+    @Test
+    public void applyPostings_WithIdempotencyKeys_KeysStoredOnAppliedTransactions() {
+        List<PostingRequest> postings = List.of(
+                new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 500_00),
+                new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, 5000_00));
+
+        dataFacade.applyPostings(postings, List.of("message:1", "message:2"), BatchMode.BEST_EFFORT);
+
+        List<Transaction> stored = dataFacade.findTransactionsByIdempotencyKeys(List.of("message:1", "message:2"));
+        assertEquals(1, stored.size());
+        assertEquals("message:1", stored.get(0).getIdempotencyKey());
+        assertEquals(TransactionType.DEPOSIT, stored.get(0).getType());
+    }
+
+    @Test
+    public void applyPostings_AllOrNothing_NothingWrittenWhenAnyItemRejected() {
+        List<PostingRequest> postings = List.of(
+                new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 500_00),
+                new PostingRequest("franklin.benjamin@gmail.com", TransactionType.DEPOSIT, 100_00));
+
+        List<PostingOutcome> result = dataFacade.applyPostings(postings, BatchMode.ALL_OR_NOTHING);
+
+        assertEquals(PostingStatus.ABORTED, result.get(0).status());
+        assertNull(result.get(0).account());
+        assertEquals(PostingStatus.REJECTED, result.get(1).status());
+
+        BankAccount account = dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com").get();
+        assertEquals(3500, account.getBalance().intValue());
+        assertEquals(0, account.getTransactionCount());
+    }
+
     @Test
     public void deleteBankAccountById() {
 
@@ -191,5 +362,7 @@ public class DataFacadeIT {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(1L, result.get(0).getId());
+        assertTrue(dataFacade.findBankAccountByAccountId("franklin.benjamin@gmail.com").isEmpty());
+        assertTrue(dataFacade.updateBankAccount("franklin.benjamin@gmail.com", BankAccountUpdate.activation(true)).isEmpty());
     }
 }
\ No newline at end of file
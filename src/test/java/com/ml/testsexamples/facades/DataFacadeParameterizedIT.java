@@ -1,7 +1,8 @@
 package com.ml.testsexamples.facades;
 
-import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
 import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.requests.BankAccountUpdate;
 import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.DisplayNameGeneration;
@@ -11,10 +12,9 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.util.Pair;
 import org.springframework.test.context.jdbc.Sql;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,41 +33,41 @@ public class DataFacadeParameterizedIT {
     @ParameterizedTest
     @ValueSource(strings = {"110", "210", "410", "810"})
     public void updateBankAccount_TryToUpdateBalance_BalanceHasBeenUpdated(String balance) {
-        Optional<BankAccount> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, balance)));
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
+                BankAccountUpdate.of(Map.of(BankAccountFields.BALANCE, balance)));
         assertTrue(result.isPresent());
-        BankAccount bankAccountResult = result.get();
-        assertThat(bankAccountResult.getId().intValue()).isEqualTo(1);
-        assertThat(bankAccountResult.getBalance().intValue()).isEqualTo(Integer.parseInt(balance));
+        BankAccountSnapshot bankAccountResult = result.get();
+        assertThat(bankAccountResult.id().intValue()).isEqualTo(1);
+        assertThat(bankAccountResult.balance().intValue()).isEqualTo(Integer.parseInt(balance));
     }
 
     @ParameterizedTest
     @CsvSource({"120, 220", "420, 820"})
     public void updateBankAccount_TryToUpdateBalanceAndMinimumBalanced_BalanceAndMinimumHasBeenUpdated(String balance, String minimumBalance) {
-        Optional<BankAccount> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, balance), Pair.of(BankAccountFields.MINIMUM_BALANCE, minimumBalance)));
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
+                BankAccountUpdate.of(Map.of(BankAccountFields.BALANCE, balance, BankAccountFields.MINIMUM_BALANCE, minimumBalance)));
         assertTrue(result.isPresent());
-        BankAccount bankAccountResult = result.get();
-        assertThat(bankAccountResult.getId().intValue()).isEqualTo(1);
-        assertThat(bankAccountResult.getBalance().intValue()).isEqualTo(Integer.parseInt(balance));
-        assertThat(bankAccountResult.getMinimumBalance().intValue()).isEqualTo(Integer.parseInt(minimumBalance));
+        BankAccountSnapshot bankAccountResult = result.get();
+        assertThat(bankAccountResult.id().intValue()).isEqualTo(1);
+        assertThat(bankAccountResult.balance().intValue()).isEqualTo(Integer.parseInt(balance));
+        assertThat(bankAccountResult.minimumBalance().intValue()).isEqualTo(Integer.parseInt(minimumBalance));
     }
 
     @ParameterizedTest
     @CsvFileSource(resources = "/tests/tests-data.csv", delimiter = ',')
     public void updateBankAccount_TryToUpdateAllDataFieldsFromCsvFile_AllDataHasBeenUpdated(String firstName, String lastName, String balance, String minimumBalance) {
-        Optional<BankAccount> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.FIRST_NAME, firstName),
-                        Pair.of(BankAccountFields.LAST_NAME, lastName),
-                        Pair.of(BankAccountFields.BALANCE, balance),
-                        Pair.of(BankAccountFields.MINIMUM_BALANCE, minimumBalance)));
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
+                BankAccountUpdate.of(Map.of(BankAccountFields.FIRST_NAME, firstName,
+                        BankAccountFields.LAST_NAME, lastName,
+                        BankAccountFields.BALANCE, balance,
+                        BankAccountFields.MINIMUM_BALANCE, minimumBalance)));
 
         assertTrue(result.isPresent());
-        BankAccount bankAccountResult = result.get();
-        assertThat(bankAccountResult.getId().intValue()).isEqualTo(1);
-        assertThat(bankAccountResult.getFirstName()).isEqualTo(firstName);
-        assertThat(bankAccountResult.getLastName()).isEqualTo(lastName);
-        assertThat(bankAccountResult.getBalance().intValue()).isEqualTo(Integer.parseInt(balance));
-        assertThat(bankAccountResult.getMinimumBalance().intValue()).isEqualTo(Integer.parseInt(minimumBalance));
+        BankAccountSnapshot bankAccountResult = result.get();
+        assertThat(bankAccountResult.id().intValue()).isEqualTo(1);
+        assertThat(bankAccountResult.firstName()).isEqualTo(firstName);
+        assertThat(bankAccountResult.lastName()).isEqualTo(lastName);
+        assertThat(bankAccountResult.balance().intValue()).isEqualTo(Integer.parseInt(balance));
+        assertThat(bankAccountResult.minimumBalance().intValue()).isEqualTo(Integer.parseInt(minimumBalance));
     }
 }
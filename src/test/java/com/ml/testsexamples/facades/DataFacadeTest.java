@@ -1,19 +1,29 @@
 package com.ml.testsexamples.facades;
 
+import com.ml.testsexamples.caches.BankAccountCache;
 import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dto.AccountEventDto;
 import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.enums.OutboxEventType;
+import com.ml.testsexamples.exceptions.PreconditionFailedException;
+import com.ml.testsexamples.repositories.BankAccountPostingRepository;
 import com.ml.testsexamples.repositories.BankAccountRepository;
+import com.ml.testsexamples.repositories.BankAccountStripeRepository;
+import com.ml.testsexamples.repositories.OutboxRepository;
+import com.ml.testsexamples.requests.BankAccountUpdate;
 import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
-import org.springframework.data.util.Pair;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +36,18 @@ public class DataFacadeTest {
     @Mock
     private BankAccountRepository repository;
 
+    @Mock
+    private BankAccountPostingRepository postingRepository;
+
+    @Mock
+    private BankAccountStripeRepository stripeRepository;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Spy
+    private BankAccountCache bankAccountCache = BankAccountCache.disabled();
+
     @InjectMocks
     private DataFacade dataFacade;
 
@@ -96,76 +118,94 @@ public class DataFacadeTest {
         assertTrue(result.isPresent());
         assertBankAccountEquals(bankAccount, result.get());
         verify(repository).save(bankAccount);
+        verify(outboxRepository).append(AccountEventDto.of(OutboxEventType.ACCOUNT_CREATED, BankAccountSnapshot.of(bankAccount)));
         verifyNoMoreInteractions(repository);
     }
 
     @Test
     public void updateBankAccount_ExistingAccountIdAndValidFields_ReturnsUpdatedBankAccount() {
         // Arrange
-        BankAccount originalBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
-        BankAccount updatedBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Meir", "Roth",
-                BigDecimal.valueOf(10000), BigDecimal.valueOf(0));
-
-        when(repository.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(originalBankAccount));
-        when(repository.save(any(BankAccount.class))).thenReturn(updatedBankAccount);
+        BankAccountUpdate update = BankAccountUpdate.builder()
+                .firstName("Meir")
+                .lastName("Roth")
+                .minimumBalance(0L)
+                .build();
+        BankAccountSnapshot updatedBankAccount = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Meir", "Roth",
+                BigDecimal.valueOf(3500), BigDecimal.ZERO, true, 0, null, LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+        when(postingRepository.updateBankAccount("theodore.roosevelt@gmail.com", update, null)).thenReturn(Optional.of(updatedBankAccount));
 
         // Act
-        Optional<BankAccount> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(
-                        Pair.of(BankAccountFields.FIRST_NAME, "Meir"),
-                        Pair.of(BankAccountFields.LAST_NAME, "Roth"),
-                        Pair.of(BankAccountFields.BALANCE, "10000"),
-                        Pair.of(BankAccountFields.MINIMUM_BALANCE, "0")
-                ));
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", update);
 
         // Assert
         assertTrue(result.isPresent());
-        assertBankAccountEquals(updatedBankAccount, result.get());
-        verify(repository).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(repository).save(any(BankAccount.class));
-        verifyNoMoreInteractions(repository);
+        assertEquals(updatedBankAccount, result.get());
+        verify(postingRepository).updateBankAccount("theodore.roosevelt@gmail.com", update, null);
+        verifyNoInteractions(repository, stripeRepository);
+    }
+
+    @Test
+    public void updateBankAccount_Balance_SubBalancesLockedAndSubtracted() {
+        // Arrange
+        BankAccountUpdate update = BankAccountUpdate.builder().balance(10000_00L).build();
+        when(stripeRepository.lockStripedBalance("theodore.roosevelt@gmail.com")).thenReturn(new BigDecimal("2500.00"));
+        when(postingRepository.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.builder().balance(7500_00L).build(), null))
+                .thenReturn(Optional.empty());
+
+        // Act
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", update);
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(postingRepository).updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.builder().balance(7500_00L).build(), null);
     }
 
     @Test
     public void updateBankAccount_NonExistingAccountId_ReturnsEmptyOptional() {
         // Arrange
-        when(repository.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
+        when(postingRepository.updateBankAccount("fake@gmail.com", BankAccountUpdate.activation(true), 3L)).thenReturn(Optional.empty());
+        when(repository.existsByAccountId("fake@gmail.com")).thenReturn(false);
 
         // Act
-        Optional<BankAccount> result = dataFacade.updateBankAccount("fake@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, "1000"), Pair.of(BankAccountFields.BALANCE, "15000")));
+        Optional<BankAccountSnapshot> result = dataFacade.updateBankAccount("fake@gmail.com", BankAccountUpdate.activation(true), 3L);
 
         // Assert
         assertFalse(result.isPresent());
-        verify(repository).findBankAccountByAccountId("fake@gmail.com");
+        verify(repository).existsByAccountId("fake@gmail.com");
         verifyNoMoreInteractions(repository);
     }
 
     @Test
-    public void updateBankAccount_UnauthorizedField_ThrowsIllegalArgumentException() {
+    public void updateBankAccount_StaleVersion_ThrowsPreconditionFailedException() {
         // Arrange
-        BankAccount originalBankAccount = createBankAccount(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500));
-        when(repository.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(originalBankAccount));
+        when(postingRepository.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), 3L)).thenReturn(Optional.empty());
+        when(repository.existsByAccountId("theodore.roosevelt@gmail.com")).thenReturn(true);
 
         // Act and Assert
-        assertThrows(IllegalArgumentException.class, () -> dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(
-                        Pair.of(BankAccountFields.ID, "1000"),
-                        Pair.of(BankAccountFields.BALANCE, "8500")
-                )));
-        verify(repository).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verifyNoMoreInteractions(repository);
+        assertThrows(PreconditionFailedException.class,
+                () -> dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), 3L));
+    }
+
+    @Test
+    public void updateBankAccount_UnauthorizedField_ThrowsIllegalArgumentException() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> BankAccountUpdate.of(Map.of(
+                BankAccountFields.ID, "1000",
+                BankAccountFields.BALANCE, "8500")));
+        verifyNoInteractions(repository, postingRepository);
     }
 
     @Test
     public void deleteBankAccountById_ValidAccountId_DeletesBankAccount() {
+        // Arrange
+        when(repository.markDeletedByAccountId("theodore.roosevelt@gmail.com")).thenReturn(1);
+
         // Act
         dataFacade.deleteBankAccountByAccountId("theodore.roosevelt@gmail.com");
 
         // Assert
-        verify(repository).deleteByAccountId("theodore.roosevelt@gmail.com");
+        verify(repository).markDeletedByAccountId("theodore.roosevelt@gmail.com");
+        verify(outboxRepository).append(AccountEventDto.of(OutboxEventType.ACCOUNT_DELETED, "theodore.roosevelt@gmail.com"));
         verifyNoMoreInteractions(repository);
     }
 
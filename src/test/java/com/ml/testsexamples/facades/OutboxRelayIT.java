@@ -0,0 +1,109 @@
+package com.ml.testsexamples.facades;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dao.OutboxEvent;
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.enums.OutboxEventType;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.messaging.InMemoryOutboxPublisher;
+import com.ml.testsexamples.repositories.OutboxRepository;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 30)
+public class OutboxRelayIT {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private InMemoryOutboxPublisher publisher;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        publisher = new InMemoryOutboxPublisher();
+        relay = new OutboxRelay(false, 2, Duration.ZERO, outboxRepository, publisher, transactionManager);
+    }
+
+    @Test
+    public void relayBatch_CommittedChanges_PublishedInOrderAndRemoved() throws Exception {
+        dataFacade.postTransaction(ACCOUNT_ID, 100_00, TransactionType.DEPOSIT);
+        dataFacade.postTransaction(ACCOUNT_ID, 50_00, TransactionType.WITHDRAW);
+        dataFacade.updateBankAccount(ACCOUNT_ID, BankAccountUpdate.activation(false));
+        dataFacade.deleteBankAccountByAccountId("franklin.benjamin@gmail.com");
+
+        assertEquals(2, relay.relayBatch());
+        assertEquals(2, relay.relayBatch());
+        assertEquals(0, relay.relayBatch());
+
+        List<OutboxEvent> published = publisher.getPublished();
+        assertEquals(List.of(OutboxEventType.TRANSACTION_POSTED, OutboxEventType.TRANSACTION_POSTED,
+                        OutboxEventType.ACCOUNT_UPDATED, OutboxEventType.ACCOUNT_DELETED),
+                published.stream().map(OutboxEvent::getType).toList());
+        JsonNode posting = objectMapper.readTree(published.get(0).getPayload());
+        assertEquals(ACCOUNT_ID, posting.get("accountId").asText());
+        assertEquals("DEPOSIT", posting.get("transactionType").asText());
+        assertEquals(100, posting.get("amount").intValue());
+        assertEquals(3600, posting.get("account").get("balance").intValue());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_event", Integer.class));
+    }
+
+    @Test
+    public void relayBatch_BatchNotConfirmed_EventsKeptAndPublishedAgain() {
+        dataFacade.postTransaction(ACCOUNT_ID, 100_00, TransactionType.DEPOSIT);
+        publisher.rejectNextBatch();
+
+        assertThrows(IllegalStateException.class, () -> relay.relayBatch());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_event", Integer.class));
+
+        assertEquals(1, relay.relayBatch());
+        assertEquals(1, publisher.getPublished().size());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_event", Integer.class));
+    }
+
+    @Test
+    public void applyPostings_AllOrNothingRejected_NoEventsWritten() {
+        List<PostingRequest> postings = List.of(
+                new PostingRequest(ACCOUNT_ID, TransactionType.DEPOSIT, 100_00),
+                new PostingRequest(ACCOUNT_ID, TransactionType.WITHDRAW, 1_000_000_00));
+
+        dataFacade.applyPostings(postings, BatchMode.ALL_OR_NOTHING);
+
+        assertEquals(0, relay.relayBatch());
+        assertTrue(publisher.getPublished().isEmpty());
+    }
+}
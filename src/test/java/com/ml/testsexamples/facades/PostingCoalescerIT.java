@@ -0,0 +1,101 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "bank-account.posting.coalescing.enabled=true")
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 60)
+public class PostingCoalescerIT {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PostingCoalescer postingCoalescer;
+
+    @Autowired
+    private DataFacade dataFacade;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void post_ConcurrentDepositsToOneAccount_NoDepositLost() throws Exception {
+        int deposits = 500;
+        List<Future<BankAccountSnapshot>> results = postConcurrently(deposits, TransactionType.DEPOSIT, 1_00);
+
+        for (Future<BankAccountSnapshot> result : results) {
+            assertEquals(ACCOUNT_ID, result.get().accountId());
+        }
+        BankAccount account = dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get();
+        assertEquals(3500 + deposits, account.getBalance().intValue());
+        assertEquals(deposits, account.getTransactionCount());
+        assertEquals(deposits, jdbcTemplate.queryForObject("SELECT count(*) FROM transaction WHERE bank_account_id = 1", Integer.class));
+    }
+
+    @Test
+    public void post_ConcurrentWithdrawals_OnlyCoveredWithdrawalsApplied() throws Exception {
+        List<Future<BankAccountSnapshot>> results = postConcurrently(10, TransactionType.WITHDRAW, 500_00);
+
+        int applied = 0;
+        int rejected = 0;
+        for (Future<BankAccountSnapshot> result : results) {
+            try {
+                result.get();
+                applied++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InsufficientFundsException.class, e.getCause());
+                rejected++;
+            }
+        }
+        assertEquals(4, applied);
+        assertEquals(6, rejected);
+        assertEquals(1500, dataFacade.findBankAccountByAccountId(ACCOUNT_ID).get().getBalance().intValue());
+    }
+
+    @Test
+    public void post_NotExistingAccount_ThrowsEntityNotFoundException() {
+        assertThrows(EntityNotFoundException.class,
+                () -> postingCoalescer.post(new PostingRequest("fake.mail@gmail.com", TransactionType.DEPOSIT, 100_00)));
+    }
+
+    private List<Future<BankAccountSnapshot>> postConcurrently(int count, TransactionType type, long amount) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<BankAccountSnapshot>> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(executor.submit(() -> postingCoalescer.post(new PostingRequest(ACCOUNT_ID, type, amount))));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(50, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ml.testsexamples.facades;
+
+import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "bank-account.posting.coalescing.enabled=true",
+        "bank-account.posting.group-commit.enabled=true",
+        "bank-account.posting.group-commit.window=200ms"})
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 60)
+public class PostingGroupCommitterIT {
+
+    private static final int ACCOUNTS = 40;
+    // Every caller is released at once and one window holds them all, so a few shared commits are enough.
+    private static final int MAX_COMMITS = 4;
+
+    @SpyBean
+    private DataFacade dataFacade;
+
+    @Autowired
+    private PostingCoalescer postingCoalescer;
+
+    @Test
+    public void post_DepositsToDifferentAccounts_SharedCommitsAndRejectionsIsolated() throws Exception {
+        dataFacade.saveBankAccounts(IntStream.range(0, ACCOUNTS)
+                .mapToObj(i -> BankAccount.builder()
+                        .accountId(accountId(i))
+                        .firstName("Group")
+                        .lastName("Commit")
+                        .balance(BigDecimal.valueOf(100))
+                        .minimumBalance(BigDecimal.ZERO)
+                        .active(true)
+                        .build())
+                .toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(ACCOUNTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BankAccountSnapshot>> results = new ArrayList<>(ACCOUNTS);
+        try {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                // every tenth caller overdraws its account
+                PostingRequest posting = i % 10 == 0
+                        ? new PostingRequest(accountId(i), TransactionType.WITHDRAW, 500_00)
+                        : new PostingRequest(accountId(i), TransactionType.DEPOSIT, 50_00);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return postingCoalescer.post(posting);
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(50, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            if (i % 10 == 0) {
+                ExecutionException e = assertThrows(ExecutionException.class, results.get(i)::get);
+                assertInstanceOf(InsufficientFundsException.class, e.getCause());
+                assertEquals(100, dataFacade.findBankAccountByAccountId(accountId(i)).get().getBalance().intValue());
+            } else {
+                assertEquals(150, results.get(i).get().balance().intValue());
+                assertEquals(150, dataFacade.findBankAccountByAccountId(accountId(i)).get().getBalance().intValue());
+            }
+        }
+        verify(dataFacade, atMost(MAX_COMMITS)).applyPostings(any(), any());
+    }
+
+    private static String accountId(int i) {
+        return "group.commit." + i + "@gmail.com";
+    }
+}
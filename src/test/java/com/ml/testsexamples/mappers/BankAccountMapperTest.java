@@ -3,6 +3,7 @@ package com.ml.testsexamples.mappers;
 import com.ml.testsexamples.dao.BankAccount;
 import com.ml.testsexamples.dao.Transaction;
 import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
 import com.ml.testsexamples.dto.TransactionDto;
 import com.ml.testsexamples.enums.TransactionType;
 import org.junit.jupiter.api.Test;
@@ -51,6 +52,33 @@ public class BankAccountMapperTest {
         assertThat(transactionDto.type()).isEqualTo(TransactionType.DEPOSIT);
     }
 
+    @Test
+    void toSummaryDto() {
+
+        BankAccount bankAccount = BankAccount.builder()
+                .id(1L)
+                .accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore")
+                .lastName("Roosevelt")
+                .balance(BigDecimal.valueOf(4500))
+                .minimumBalance(BigDecimal.valueOf(1500))
+                .active(true)
+                .transactionCount(3)
+                .lastActivityAt(LocalDateTime.of(2023, 5, 1, 10, 0))
+                .build();
+
+        BankAccountSummaryDto summaryDto = BankAccountMapper.INSTANCE.toSummaryDto(bankAccount);
+
+        assertThat(summaryDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
+        assertThat(summaryDto.firstName()).isEqualTo("Theodore");
+        assertThat(summaryDto.lastName()).isEqualTo("Roosevelt");
+        assertThat(summaryDto.balance()).isEqualTo(BigDecimal.valueOf(4500));
+        assertThat(summaryDto.minimumBalance()).isEqualTo(BigDecimal.valueOf(1500));
+        assertThat(summaryDto.active()).isTrue();
+        assertThat(summaryDto.transactionCount()).isEqualTo(3);
+        assertThat(summaryDto.lastActivityAt()).isEqualTo(LocalDateTime.of(2023, 5, 1, 10, 0));
+    }
+
     @Test
     void toDao() {
 
@@ -0,0 +1,30 @@
+package com.ml.testsexamples.messaging;
+
+import com.ml.testsexamples.dao.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Stands in for the broker in tests: confirms every batch unless told to reject the next one.
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final List<OutboxEvent> published = new ArrayList<>();
+    private boolean rejectNext;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        if (rejectNext) {
+            rejectNext = false;
+            throw new IllegalStateException("Batch not confirmed");
+        }
+        published.addAll(events);
+    }
+
+    public synchronized void rejectNextBatch() {
+        rejectNext = true;
+    }
+
+    public synchronized List<OutboxEvent> getPublished() {
+        return List.copyOf(published);
+    }
+}
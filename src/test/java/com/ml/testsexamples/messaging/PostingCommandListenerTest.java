@@ -0,0 +1,92 @@
+package com.ml.testsexamples.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dto.PostingResultDto;
+import com.ml.testsexamples.enums.PostingStatus;
+import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.services.BankAccountService;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+public class PostingCommandListenerTest {
+
+    @Mock
+    private BankAccountService bankAccountService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PostingCommandListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        listener = new PostingCommandListener(bankAccountService, rabbitTemplate, objectMapper, "posting-replies");
+    }
+
+    @Test
+    public void onPostings_BatchWithMalformedMessage_AppliedInOrderAndEveryMessageAnswered() throws Exception {
+        PostingRequest deposit = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 100_00);
+        PostingRequest withdraw = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, 50_00);
+        when(bankAccountService.postEach(List.of(deposit, withdraw), List.of("message:1", "message:3"))).thenReturn(List.of(
+                new PostingResultDto(deposit.accountId(), deposit.type(), new BigDecimal("100.00"), PostingStatus.APPLIED, null, new BigDecimal("3600.00")),
+                new PostingResultDto(withdraw.accountId(), withdraw.type(), new BigDecimal("50.00"), PostingStatus.APPLIED, null, new BigDecimal("3550.00"))));
+
+        listener.onPostings(List.of(
+                message("{\"accountId\":\"theodore.roosevelt@gmail.com\",\"type\":\"DEPOSIT\",\"amount\":100}", "1", "client-replies"),
+                message("{\"accountId\":", "2", null),
+                message("{\"accountId\":\"theodore.roosevelt@gmail.com\",\"type\":\"WITHDRAW\",\"amount\":50}", "3", null)));
+
+        verify(bankAccountService).postEach(List.of(deposit, withdraw), List.of("message:1", "message:3"));
+        ArgumentCaptor<Message> replies = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq(""), eq("client-replies"), replies.capture());
+        verify(rabbitTemplate, times(2)).send(eq(""), eq("posting-replies"), replies.capture());
+        verifyNoMoreInteractions(rabbitTemplate);
+
+        List<Message> sent = replies.getAllValues();
+        assertEquals(List.of("1", "2", "3"), sent.stream().map(reply -> reply.getMessageProperties().getCorrelationId()).toList());
+        assertEquals(PostingStatus.APPLIED, objectMapper.readValue(sent.get(0).getBody(), PostingResultDto.class).status());
+        PostingResultDto malformed = objectMapper.readValue(sent.get(1).getBody(), PostingResultDto.class);
+        assertEquals(PostingStatus.REJECTED, malformed.status());
+        assertEquals("Malformed posting", malformed.message());
+        assertEquals(0, new BigDecimal("3550.00").compareTo(objectMapper.readValue(sent.get(2).getBody(), PostingResultDto.class).balance()));
+    }
+
+    @Test
+    public void onPostings_PostingFails_NoRepliesAndBatchRedelivered() {
+        when(bankAccountService.postEach(any(), any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> listener.onPostings(List.of(
+                message("{\"accountId\":\"theodore.roosevelt@gmail.com\",\"type\":\"DEPOSIT\",\"amount\":100}", "1", null))));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    private static Message message(String body, String messageId, String replyTo) {
+        return MessageBuilder.withBody(body.getBytes(StandardCharsets.UTF_8))
+                .setMessageId(messageId)
+                .setReplyTo(replyTo)
+                .build();
+    }
+}
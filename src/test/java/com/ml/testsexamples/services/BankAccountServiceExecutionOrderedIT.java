@@ -1,6 +1,6 @@
 package com.ml.testsexamples.services;
 
-import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
 import com.ml.testsexamples.exceptions.InsufficientFundsException;
 import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
 import org.junit.jupiter.api.*;
@@ -26,7 +26,7 @@ public class BankAccountServiceExecutionOrderedIT {
     @Order(1)
     @Sql("classpath:/data/recreate-datasets-2.sql")
     public void getAccountInfo() {
-        Optional<BankAccountDto> result = service.getAccountInfo("john.doe@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("john.doe@gmail.com");
         assertTrue(result.isPresent());
         assertThat(result.get().accountId()).isEqualTo("john.doe@gmail.com");
         assertThat(result.get().firstName()).isEqualTo("John");
@@ -39,7 +39,7 @@ public class BankAccountServiceExecutionOrderedIT {
     @Test
     @Order(2)
     public void makeDeposit_MakeDepositFor500_BalanceChangedTo2500() {
-        Optional<BankAccountDto> result = service.makeDeposit("john.doe@gmail.com", 500);
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("john.doe@gmail.com", 500_00);
         assertTrue(result.isPresent());
         assertThat(result.get().accountId()).isEqualTo("john.doe@gmail.com");
         assertThat(result.get().firstName()).isEqualTo("John");
@@ -52,7 +52,7 @@ public class BankAccountServiceExecutionOrderedIT {
     @Test
     @Order(3)
     public void makeDeposit_MakeDepositFor500_BalanceChangedTo3000() {
-        Optional<BankAccountDto> result = service.makeDeposit("john.doe@gmail.com", 500);
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("john.doe@gmail.com", 500_00);
         assertTrue(result.isPresent());
         assertThat(result.get().accountId()).isEqualTo("john.doe@gmail.com");
         assertThat(result.get().firstName()).isEqualTo("John");
@@ -65,7 +65,7 @@ public class BankAccountServiceExecutionOrderedIT {
     @Test
     @Order(4)
     public void makeWithdraw_MakeWithdrawFor2500_BalanceChangedTo500() {
-        Optional<BankAccountDto> result = service.makeWithdraw("john.doe@gmail.com", 2500);
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw("john.doe@gmail.com", 2500_00);
         assertTrue(result.isPresent());
         assertThat(result.get().accountId()).isEqualTo("john.doe@gmail.com");
         assertThat(result.get().firstName()).isEqualTo("John");
@@ -79,6 +79,6 @@ public class BankAccountServiceExecutionOrderedIT {
     @Order(5)
     @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:/data/clean-database.sql")
     public void makeWithdraw_MakeWithdrawFor1500_ThrowsInsufficientFundsException() {
-        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("john.doe@gmail.com", 1500));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("john.doe@gmail.com", 1500_00));
     }
 }
\ No newline at end of file
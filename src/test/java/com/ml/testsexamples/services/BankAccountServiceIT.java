@@ -1,7 +1,10 @@
 package com.ml.testsexamples.services;
 
-import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.dto.TransactionPageDto;
+import com.ml.testsexamples.enums.TransactionType;
 import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.requests.TransactionHistoryRequest;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -39,10 +43,10 @@ public class BankAccountServiceIT {
     @EnabledOnJre({JRE.JAVA_17})
     public void getAccountInfo_EnabledOnOsMAC_EnabledOnJre17() {
 
-        Optional<BankAccountDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
 
         assumingThat(bankAccountDto.active(), () -> assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance()));
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
@@ -58,9 +62,9 @@ public class BankAccountServiceIT {
     @EnabledOnOs({OS.LINUX})
     public void getAccountInfo_EnabledOnOsLINUX() {
 
-        Optional<BankAccountDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
 
         assumingThat(bankAccountDto.active(), () -> assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance()));
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
@@ -74,11 +78,11 @@ public class BankAccountServiceIT {
     @DisplayName("Test activate bank account.")
     public void activateAccount() {
 
-        Optional<BankAccountDto> result = service.getAccountInfo("franklin.benjamin@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("franklin.benjamin@gmail.com");
 
         assertThat(result.isPresent()).isTrue();
 
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.active()).isFalse();
 
         result = service.activateAccount("franklin.benjamin@gmail.com");
@@ -99,11 +103,11 @@ public class BankAccountServiceIT {
     @DisplayName("Test deactivate bank account.")
     public void deactivateAccount() {
 
-        Optional<BankAccountDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
 
         assertThat(result.isPresent()).isTrue();
 
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.active()).isTrue();
 
         result = service.deactivateAccount("theodore.roosevelt@gmail.com");
@@ -124,10 +128,10 @@ public class BankAccountServiceIT {
     @DisplayName("Test deposit to a bank account.")
     public void makeDeposit() {
 
-        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50);
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00);
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
         assertThat(bankAccountDto.balance().intValue()).isEqualTo(3550);
@@ -138,23 +142,23 @@ public class BankAccountServiceIT {
     @Test
     @DisplayName("Test deposit to a bank account and measure time.")
     public void makeDeposit_measureTime() {
-        assertTimeout(Duration.ofMillis(60), () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50));
+        assertTimeout(Duration.ofMillis(60), () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50_00));
     }
 
     @Test
     @DisplayName("Test deposit to a not-exists bank account, result=EntityNotFoundException")
     public void makeDeposit_WithNotExistsBankAccount() {
-        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50_00));
     }
 
     @Test
     @DisplayName("Test withdraw from a bank account.")
     public void makeWithdraw() {
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1999);
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1999_00);
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
         assertThat(bankAccountDto.balance().intValue()).isEqualTo(1501);
@@ -166,17 +170,17 @@ public class BankAccountServiceIT {
     @DisplayName("Test withdraw from a bank account until it run-out of the money.")
     public void makeWithdraw_BelowMinimum() {
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1000);
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1000_00);
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
         assertThat(bankAccountDto.balance().intValue()).isEqualTo(2500);
         assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1000);
+        result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1000_00);
 
         assertTrue(result.isPresent());
         bankAccountDto = result.get();
@@ -186,40 +190,73 @@ public class BankAccountServiceIT {
         assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
         assertThat(bankAccountDto.balance().doubleValue()).isEqualTo(bankAccountDto.minimumBalance().doubleValue());
 
-        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 1000));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 1000_00));
     }
 
     @Test
     @DisplayName("Test withdraw from a not-exists bank account. result=EntityNotFoundException")
     public void makeWithdraw_WithNotExistsBankAccount() {
-        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50_00));
     }
 
     @Test
     @DisplayName("Test withdraw from a bank account with not enough money in his account. result=InsufficientFundsException")
     public void makeWithdraw_WithNInsufficientFundsException() {
-        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2001));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2001_00));
     }
 
     @Test
     @DisplayName("Test withdraw and deposit a few times for the same bank account. result=InsufficientFundsException")
     public void makeWithdraw_makeDeposit() {
 
-        assertAll(() -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeDeposit("theodore.roosevelt@gmail.com", 1000),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100),
-                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100));
+        assertAll(() -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100_00),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100_00),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100_00),
+                () -> service.makeDeposit("theodore.roosevelt@gmail.com", 1000_00),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100_00),
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 100_00));
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1);
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1_00);
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
         assertThat(bankAccountDto.balance().intValue()).isEqualTo(3999);
         assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test get transactions history page by page using the returned cursor.")
+    public void getTransactions_PageByPage() {
+        service.makeDeposit("theodore.roosevelt@gmail.com", 100_00);
+        service.makeDeposit("theodore.roosevelt@gmail.com", 200_00);
+        service.makeWithdraw("theodore.roosevelt@gmail.com", 300_00);
+
+        TransactionHistoryRequest noFilter = new TransactionHistoryRequest(null, null, null, null, null);
+
+        TransactionPageDto firstPage = service.getTransactions("theodore.roosevelt@gmail.com", noFilter, null, 2);
+        assertThat(firstPage.transactions()).hasSize(2);
+        assertThat(firstPage.transactions().get(0).amount().intValue()).isEqualTo(300);
+        assertThat(firstPage.transactions().get(1).amount().intValue()).isEqualTo(200);
+        assertThat(firstPage.nextCursor()).isNotNull();
+
+        TransactionPageDto secondPage = service.getTransactions("theodore.roosevelt@gmail.com", noFilter, firstPage.nextCursor(), 2);
+        assertThat(secondPage.transactions()).hasSize(1);
+        assertThat(secondPage.transactions().get(0).amount().intValue()).isEqualTo(100);
+        assertThat(secondPage.nextCursor()).isNull();
+
+        TransactionPageDto deposits = service.getTransactions("theodore.roosevelt@gmail.com",
+                new TransactionHistoryRequest(TransactionType.DEPOSIT, BigDecimal.valueOf(150), null, null, null), null, 10);
+        assertThat(deposits.transactions()).hasSize(1);
+        assertThat(deposits.transactions().get(0).amount().intValue()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Test get transactions history for a not-exists bank account. result=EntityNotFoundException")
+    public void getTransactions_WithNotExistsBankAccount() {
+        assertThrows(EntityNotFoundException.class, () -> service.getTransactions("fake@gmail.com",
+                new TransactionHistoryRequest(null, null, null, null, null), null, 10));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ml.testsexamples.services;
+
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+// The posting scenarios of BankAccountServiceIT with coalescing and group commit on, as they run in production.
+@SpringBootTest(properties = {
+        "bank-account.posting.coalescing.enabled=true",
+        "bank-account.posting.group-commit.enabled=true"})
+@Sql(scripts = "/data/recreate-datasets-1.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/data/clean-database.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@DisplayNameGeneration(CustomDisplayNameGenerator.class)
+@Timeout(value = 30)
+public class BankAccountServicePostingIT {
+
+    private static final String ACCOUNT_ID = "theodore.roosevelt@gmail.com";
+
+    @Autowired
+    private BankAccountService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void makeDeposit() {
+
+        Optional<BankAccountSummaryDto> result = service.makeDeposit(ACCOUNT_ID, 50_00);
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance().intValue()).isEqualTo(3550);
+        assertThat(result.get().transactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void makeDeposit_StripedAccount_PostedToSubBalances() {
+        service.setBalanceStripes(ACCOUNT_ID, 8);
+
+        Optional<BankAccountSummaryDto> result = Optional.empty();
+        for (int i = 0; i < 10; i++) {
+            result = service.makeDeposit(ACCOUNT_ID, 50_00);
+        }
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance().intValue()).isEqualTo(4000);
+        assertThat(result.get().transactionCount()).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject("SELECT sum(balance) FROM bank_account_balance_stripe", Integer.class)).isEqualTo(500);
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM bank_account WHERE id = 1", Integer.class)).isEqualTo(3500);
+    }
+
+    @Test
+    public void makeDeposit_WithNotExistsBankAccount() {
+        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50_00));
+    }
+
+    @Test
+    public void makeWithdraw_BelowMinimum() {
+
+        assertThat(service.makeWithdraw(ACCOUNT_ID, 1000_00).get().balance().intValue()).isEqualTo(2500);
+        assertThat(service.makeWithdraw(ACCOUNT_ID, 1000_00).get().balance().intValue()).isEqualTo(1500);
+
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw(ACCOUNT_ID, 1000_00));
+        assertThat(service.getAccountInfo(ACCOUNT_ID).get().balance().intValue()).isEqualTo(1500);
+    }
+
+    @Test
+    public void makeWithdraw_WithNotExistsBankAccount() {
+        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50_00));
+    }
+
+    @Test
+    public void makeWithdraw_makeDeposit() {
+
+        assertAll(() -> service.makeWithdraw(ACCOUNT_ID, 100_00),
+                () -> service.makeWithdraw(ACCOUNT_ID, 100_00),
+                () -> service.makeWithdraw(ACCOUNT_ID, 100_00),
+                () -> service.makeDeposit(ACCOUNT_ID, 1000_00),
+                () -> service.makeWithdraw(ACCOUNT_ID, 100_00),
+                () -> service.makeWithdraw(ACCOUNT_ID, 100_00));
+
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw(ACCOUNT_ID, 1_00);
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance().intValue()).isEqualTo(3999);
+        assertThat(result.get().transactionCount()).isEqualTo(7);
+    }
+}
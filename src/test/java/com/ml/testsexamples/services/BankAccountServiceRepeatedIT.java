@@ -1,6 +1,6 @@
 package com.ml.testsexamples.services;
 
-import com.ml.testsexamples.dto.BankAccountDto;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
 import com.ml.testsexamples.exceptions.InsufficientFundsException;
 import com.ml.testsexamples.utils.CustomDisplayNameGenerator;
 import org.junit.jupiter.api.*;
@@ -26,7 +26,7 @@ public class BankAccountServiceRepeatedIT {
     @Order(1)
     @Sql("classpath:/data/recreate-datasets-2.sql")
     public void getAccountInfo() {
-        Optional<BankAccountDto> result = service.getAccountInfo("john.doe@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("john.doe@gmail.com");
         assertTrue(result.isPresent());
         assertThat(result.get().accountId()).isEqualTo("john.doe@gmail.com");
         assertThat(result.get().firstName()).isEqualTo("John");
@@ -39,7 +39,7 @@ public class BankAccountServiceRepeatedIT {
     @Order(2)
     @RepeatedTest(3)
     public void makeWithdraw() {
-        Optional<BankAccountDto> result = service.makeWithdraw("john.doe@gmail.com", 500);
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw("john.doe@gmail.com", 500_00);
         assertTrue(result.isPresent());
         assertThat(result.get().accountId()).isEqualTo("john.doe@gmail.com");
         assertThat(result.get().firstName()).isEqualTo("John");
@@ -54,6 +54,6 @@ public class BankAccountServiceRepeatedIT {
     @Order(3)
     @Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:/data/clean-database.sql")
     public void makeWithdraw_MakeWithdrawFor1500_ThrowsInsufficientFundsException() {
-        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("john.doe@gmail.com", 1500));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("john.doe@gmail.com", 1500_00));
     }
 }
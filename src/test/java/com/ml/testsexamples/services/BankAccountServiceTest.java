@@ -1,24 +1,66 @@
 package com.ml.testsexamples.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.caches.IdempotencyCache;
 import com.ml.testsexamples.dao.BankAccount;
+import com.ml.testsexamples.dao.BankAccountSnapshot;
+import com.ml.testsexamples.dao.Transaction;
+import com.ml.testsexamples.dto.AccountImportErrorDto;
+import com.ml.testsexamples.dto.AccountImportResultDto;
 import com.ml.testsexamples.dto.BankAccountDto;
-import com.ml.testsexamples.enums.BankAccountFields;
+import com.ml.testsexamples.dto.BankAccountSummaryDto;
+import com.ml.testsexamples.dto.BulkActivationResultDto;
+import com.ml.testsexamples.dto.PostingResultDto;
+import com.ml.testsexamples.dto.StatementLineDto;
+import com.ml.testsexamples.dto.TransactionDto;
+import com.ml.testsexamples.dto.VersionedDto;
+import com.ml.testsexamples.enums.BatchMode;
+import com.ml.testsexamples.enums.ImportFormat;
+import com.ml.testsexamples.enums.PostingStatus;
 import com.ml.testsexamples.enums.TransactionType;
+import com.ml.testsexamples.exceptions.IdempotencyKeyReusedException;
 import com.ml.testsexamples.exceptions.InactiveAccountException;
 import com.ml.testsexamples.exceptions.InsufficientFundsException;
+import com.ml.testsexamples.exceptions.InvalidBalanceStripesException;
+import com.ml.testsexamples.exceptions.InvalidBulkActivationException;
+import com.ml.testsexamples.exceptions.InvalidIdempotencyKeyException;
+import com.ml.testsexamples.exceptions.PreconditionFailedException;
+import com.ml.testsexamples.facades.AccountImportOutcome;
+import com.ml.testsexamples.facades.ActivationOutcome;
+import com.ml.testsexamples.facades.BankAccountImporter;
 import com.ml.testsexamples.facades.DataFacade;
+import com.ml.testsexamples.facades.PostingCoalescer;
+import com.ml.testsexamples.facades.PostingOutcome;
 import com.ml.testsexamples.mappers.BankAccountMapper;
+import com.ml.testsexamples.requests.BankAccountImportRow;
+import com.ml.testsexamples.requests.BankAccountPatchRequest;
+import com.ml.testsexamples.requests.BankAccountUpdate;
+import com.ml.testsexamples.requests.BulkActivationRequest;
+import com.ml.testsexamples.requests.PostingRequest;
+import com.ml.testsexamples.utils.BankAccountImportReader;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
-import org.springframework.data.util.Pair;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +76,15 @@ public class BankAccountServiceTest {
     @Mock
     private BankAccountMapper mapper;
 
+    @Mock
+    private PostingCoalescer postingCoalescer;
+
+    @Mock
+    private BankAccountImporter bankAccountImporter;
+
+    @Spy
+    private IdempotencyCache idempotencyCache = new IdempotencyCache(100, Duration.ofMinutes(10));
+
     @InjectMocks
     private BankAccountService service;
 
@@ -51,18 +102,18 @@ public class BankAccountServiceTest {
                 .active(true)
                 .build();
 
-        BankAccountDto originalBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+        BankAccountSummaryDto originalBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, List.of());
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, 0, null);
 
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(mapper.toDto(original)).thenReturn(originalBankAccountDto);
+        when(mapper.toSummaryDto(original)).thenReturn(originalBankAccountDto);
 
-        Optional<BankAccountDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com");
 
         assertTrue(result.isPresent());
         assumeTrue(result.get().active(), "The account is not active");
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
@@ -74,6 +125,27 @@ public class BankAccountServiceTest {
         verifyNoMoreInteractions(dataFacade);
     }
 
+    @Test
+    @DisplayName("Test get an info about bank account with a non canonical account id.")
+    public void getAccountInfo_NonCanonicalAccountId_LooksUpCanonicalAccountId() {
+        BankAccount original = BankAccount.builder()
+                .id(1L)
+                .accountId("theodore.roosevelt@gmail.com")
+                .firstName("Theodore")
+                .lastName("Roosevelt")
+                .balance(BigDecimal.valueOf(3500))
+                .minimumBalance(BigDecimal.valueOf(1500))
+                .active(true)
+                .build();
+
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
+
+        service.getAccountInfo(" Theodore.Roosevelt@Gmail.com ");
+
+        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
     @Test
     @DisplayName("Test get an info about bank account for invalid bank account.")
     public void getAccountInfo_GetInfoForInvalidBankAccount() {
@@ -133,39 +205,20 @@ public class BankAccountServiceTest {
     @Test
     @DisplayName("Test activate bank account")
     public void activateAccount() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, 0, null, LocalDateTime.now(), LocalDateTime.now(), 1, 0);
 
-        BankAccount original = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(false)
-                .build();
-
-        BankAccount updated = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(true)
-                .build();
-
-        BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, List.of());
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), true, 0, null);
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "true")))).thenReturn(Optional.of(updated));
-        when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), null)).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
 
-        Optional<BankAccountDto> result = service.activateAccount("theodore.roosevelt@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.activateAccount("theodore.roosevelt@gmail.com");
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
@@ -174,23 +227,22 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.active()).isTrue();
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "true")));
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), null);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
     @DisplayName("Test activate on to not-exists bank account")
     public void activateAccount_WithNotExistsBankAccount() {
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.empty());
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), null)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> service.activateAccount("theodore.roosevelt@gmail.com"));
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), null);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
-    @DisplayName("Test deactivate bank account.")
-    public void deactivateAccount() {
+    @DisplayName("Test get info with the current ETag in If-None-Match. result=not modified, nothing mapped")
+    public void getAccountInfo_IfNoneMatchCurrentVersion_NotModified() {
         BankAccount original = BankAccount.builder()
                 .id(1L)
                 .accountId("theodore.roosevelt@gmail.com")
@@ -199,30 +251,69 @@ public class BankAccountServiceTest {
                 .balance(BigDecimal.valueOf(3500))
                 .minimumBalance(BigDecimal.valueOf(1500))
                 .active(true)
+                .version(7)
                 .build();
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
 
-        BankAccount updated = BankAccount.builder()
-                .id(1L)
-                .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
-                .minimumBalance(BigDecimal.valueOf(1500))
-                .active(false)
-                .build();
+        VersionedDto<BankAccountSummaryDto> result = service.getAccountInfo("theodore.roosevelt@gmail.com", "W/\"6\", \"7\"");
+
+        assertTrue(result.isNotModified());
+        assertThat(result.eTag()).isEqualTo("\"7\"");
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("Test activate bank account with a stale ETag in If-Match. result=PreconditionFailedException")
+    public void activateAccount_IfMatchStaleVersion_PreconditionFailed() {
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), 6L))
+                .thenThrow(new PreconditionFailedException());
+
+        assertThrows(PreconditionFailedException.class, () -> service.activateAccount("theodore.roosevelt@gmail.com", "\"6\""));
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), 6L);
+        verifyNoInteractions(mapper);
+    }
 
-        BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+    @Test
+    @DisplayName("Test activate bank account with a weak ETag in If-Match. result=PreconditionFailedException")
+    public void activateAccount_IfMatchWeakTag_PreconditionFailed() {
+        assertThrows(PreconditionFailedException.class, () -> service.activateAccount("theodore.roosevelt@gmail.com", "W/\"7\""));
+        verifyNoInteractions(dataFacade, mapper);
+    }
+
+    @Test
+    @DisplayName("Test activate bank account with the current ETag in If-Match. result=new ETag")
+    public void activateAccount_IfMatchCurrentVersion_NewETag() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                null, null, true, 0, null, LocalDateTime.now(), LocalDateTime.now(), 8, 0);
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt", null, null, true, 0, null);
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(true), 7L))
+                .thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
+
+        VersionedDto<BankAccountSummaryDto> result = service.activateAccount("theodore.roosevelt@gmail.com", "\"7\"");
+
+        assertThat(result.eTag()).isEqualTo("\"8\"");
+        assertThat(result.body().active()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test deactivate bank account.")
+    public void deactivateAccount() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), false, 0, null, LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), false, List.of());
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(1500), false, 0, null);
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "false")))).thenReturn(Optional.of(updated));
-        when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false), null)).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
 
-        Optional<BankAccountDto> result = service.deactivateAccount("theodore.roosevelt@gmail.com");
+        Optional<BankAccountSummaryDto> result = service.deactivateAccount("theodore.roosevelt@gmail.com");
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
@@ -231,55 +322,202 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.active()).isFalse();
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.ACTIVE, "false")));
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false), null);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
     @DisplayName("Test deactivate on to not-exists bank account.")
     public void deactivateAccount_WithNotExistsBankAccount() {
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.empty());
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false), null)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> service.deactivateAccount("theodore.roosevelt@gmail.com"));
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", BankAccountUpdate.activation(false), null);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
-    @DisplayName("Test deposit to bank account.")
-    public void makeDeposit() {
-        BankAccount original = BankAccount.builder()
+    @DisplayName("Test patch several attributes of a bank account. result=one update of only the patched attributes")
+    public void patchAccount_SeveralAttributes_SingleUpdate() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Ted", "Roosevelt",
+                BigDecimal.valueOf(3500), BigDecimal.valueOf(500), false, 0, null, LocalDateTime.now(), LocalDateTime.now(), 3, 0);
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
+                "Ted", "Roosevelt", BigDecimal.valueOf(3500), BigDecimal.valueOf(500), false, 0, null);
+        BankAccountUpdate update = BankAccountUpdate.builder().firstName("Ted").minimumBalance(500_00L).active(false).build();
+        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", update, 2L)).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
+
+        VersionedDto<BankAccountSummaryDto> result = service.patchAccount("theodore.roosevelt@gmail.com",
+                new BankAccountPatchRequest("Ted", null, 500_00L, false), "\"2\"");
+
+        assertThat(result.eTag()).isEqualTo("\"3\"");
+        assertThat(result.body().firstName()).isEqualTo("Ted");
+        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", update, 2L);
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test deactivate a list of bank accounts. result=duplicates merged, invalid and missing ids reported")
+    public void deactivateAccounts_AccountIds_CountsAndNotFound() {
+        when(dataFacade.setActive(List.of("theodore.roosevelt@gmail.com", "franklin.benjamin@gmail.com", "fake@gmail.com"), false))
+                .thenReturn(new ActivationOutcome(List.of("theodore.roosevelt@gmail.com"), List.of("fake@gmail.com")));
+
+        BulkActivationResultDto result = service.deactivateAccounts(new BulkActivationRequest(List.of(
+                "theodore.roosevelt@gmail.com", "Theodore.Roosevelt@gmail.com ", "franklin.benjamin@gmail.com", "not-an-email", "fake@gmail.com"),
+                null));
+
+        assertThat(result.active()).isFalse();
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.unchanged()).isEqualTo(1);
+        assertThat(result.notFound()).containsExactly("not-an-email", "fake@gmail.com");
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("Test activate bank accounts with both a list and a filter. result=InvalidBulkActivationException")
+    public void activateAccounts_ListAndFilter_InvalidBulkActivationException() {
+        assertThrows(InvalidBulkActivationException.class, () -> service.activateAccounts(
+                new BulkActivationRequest(List.of("theodore.roosevelt@gmail.com"), LocalDateTime.now())));
+        assertThrows(InvalidBulkActivationException.class, () -> service.activateAccounts(new BulkActivationRequest(null, null)));
+        verifyNoInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test post independent postings. result=invalid ones rejected alone, the rest applied in order")
+    public void postEach_InvalidPostingAmongValid_RejectedAlone() {
+        BankAccountSnapshot posted = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3600), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+        PostingRequest deposit = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 100_00);
+        PostingRequest withdraw = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.WITHDRAW, 50_000_00);
+        when(dataFacade.applyPostings(List.of(deposit, withdraw), Collections.nCopies(2, null), BatchMode.BEST_EFFORT)).thenReturn(List.of(
+                PostingOutcome.applied(deposit, posted),
+                PostingOutcome.rejected(withdraw, new InsufficientFundsException())));
+
+        List<PostingResultDto> results = service.postEach(List.of(
+                new PostingRequest(" Theodore.Roosevelt@gmail.com", TransactionType.DEPOSIT, 100_00),
+                new PostingRequest("not-an-email", TransactionType.DEPOSIT, 100_00),
+                withdraw));
+
+        assertThat(results).extracting(PostingResultDto::status)
+                .containsExactly(PostingStatus.APPLIED, PostingStatus.REJECTED, PostingStatus.REJECTED);
+        assertThat(results.get(0).balance()).isEqualByComparingTo("3600");
+        assertThat(results.get(1).accountId()).isEqualTo("not-an-email");
+        assertThat(results.get(2).message()).isEqualTo(new InsufficientFundsException().getMessage());
+        verify(dataFacade).applyPostings(List.of(deposit, withdraw), Collections.nCopies(2, null), BatchMode.BEST_EFFORT);
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test post independent postings with keys. result=a stored key is answered as applied without posting again")
+    public void postEach_StoredKey_AnsweredWithoutPostingAgain() {
+        BankAccount account = BankAccount.builder()
                 .id(1L)
                 .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3500))
+                .balance(BigDecimal.valueOf(3600))
                 .minimumBalance(BigDecimal.valueOf(1500))
                 .active(true)
                 .build();
+        BankAccountSnapshot posted = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3650), BigDecimal.valueOf(1500), true, 2, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 2, 0);
+        PostingRequest redelivered = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 100_00);
+        PostingRequest deposit = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 50_00);
+        when(dataFacade.findTransactionsByIdempotencyKeys(Set.of("message:1", "message:2"))).thenReturn(List.of(Transaction.builder()
+                .bankAccountId(1L)
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .idempotencyKey("message:1")
+                .build()));
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(account));
+        when(mapper.toSummaryDto(account)).thenReturn(new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
+                "Theodore", "Roosevelt", BigDecimal.valueOf(3600), BigDecimal.valueOf(1500), true, 1, null));
+        when(dataFacade.applyPostings(List.of(deposit), List.of("message:2"), BatchMode.BEST_EFFORT))
+                .thenReturn(List.of(PostingOutcome.applied(deposit, posted)));
+
+        List<PostingResultDto> results = service.postEach(List.of(redelivered, deposit, deposit),
+                List.of("message:1", "message:2", "message:2"));
+
+        assertThat(results).extracting(PostingResultDto::status)
+                .containsExactly(PostingStatus.APPLIED, PostingStatus.APPLIED, PostingStatus.APPLIED);
+        assertThat(results).extracting(PostingResultDto::balance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(3600), BigDecimal.valueOf(3650), BigDecimal.valueOf(3650));
+        verify(dataFacade).applyPostings(List.of(deposit), List.of("message:2"), BatchMode.BEST_EFFORT);
+    }
 
-        BankAccount updated = BankAccount.builder()
+    @Test
+    @DisplayName("Test statement lines carry the running balance from the balance before the first line.")
+    public void streamStatement_RunningBalanceFromOpeningBalance() {
+        BankAccount original = BankAccount.builder()
                 .id(1L)
                 .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(3550))
-                .minimumBalance(BigDecimal.valueOf(1500))
+                .balance(BigDecimal.valueOf(3500))
                 .active(true)
                 .build();
+        LocalDateTime createdAt = LocalDateTime.of(2023, 5, 1, 10, 0);
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
+        doAnswer(invocation -> {
+            BiConsumer<BigDecimal, Stream<TransactionDto>> consumer = invocation.getArgument(4);
+            consumer.accept(new BigDecimal("3000.00"), Stream.of(
+                    new TransactionDto(new BigDecimal("750.00"), TransactionType.DEPOSIT, createdAt),
+                    new TransactionDto(new BigDecimal("250.00"), TransactionType.WITHDRAW, createdAt.plusMinutes(1))));
+            return null;
+        }).when(dataFacade).streamStatement(eq(1L), isNull(), isNull(), anyInt(), any());
+
+        List<StatementLineDto> lines = new ArrayList<>();
+        service.streamStatement("theodore.roosevelt@gmail.com", null, null, lines::add);
+
+        assertEquals(List.of(
+                new StatementLineDto(createdAt, TransactionType.DEPOSIT, new BigDecimal("750.00"), new BigDecimal("3750.00")),
+                new StatementLineDto(createdAt.plusMinutes(1), TransactionType.WITHDRAW, new BigDecimal("250.00"), new BigDecimal("3500.00"))),
+                lines);
+    }
+
+    @Test
+    @DisplayName("Test statement of not-exists bank account. result=EntityNotFoundException")
+    public void streamStatement_WithNotExistsBankAccount() {
+        when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.streamStatement("fake@gmail.com", null, null, line -> {
+        }));
+        verify(dataFacade, never()).streamStatement(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Test bulk import reports the imported accounts together with the rejected lines.")
+    public void importAccounts_ValidAndInvalidLines() {
+        BankAccountImportReader reader = new BankAccountImportReader(new ByteArrayInputStream("""
+                meir.lustig@gmail.com, Meir, Lustig, 5030, 1530
+                meirlustig, Meir, Lustig, 5030, 1530
+                """.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, new ObjectMapper());
+        when(bankAccountImporter.importAccounts(reader)).thenAnswer(invocation -> {
+            Iterator<BankAccountImportRow> rows = invocation.getArgument(0);
+            assertEquals(new BankAccountImportRow("meir.lustig@gmail.com", "Meir", "Lustig", 5030_00L, 1530_00L), rows.next());
+            assertFalse(rows.hasNext());
+            return new AccountImportOutcome(1, 0, 0);
+        });
+
+        AccountImportResultDto result = service.importAccounts(reader);
+
+        assertEquals(new AccountImportResultDto(1, 0, 1, List.of(new AccountImportErrorDto(2, "Wrong format exception"))), result);
+        verifyNoInteractions(dataFacade);
+    }
 
-        BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+    @Test
+    @DisplayName("Test deposit to bank account.")
+    public void makeDeposit() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, List.of());
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now());
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.BALANCE, "3550.0")))).thenReturn(Optional.of(updated));
-        when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT)).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
 
-        Optional<BankAccountDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50);
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00);
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
@@ -287,76 +525,216 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT);
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test deposit goes through the posting coalescer when coalescing is enabled.")
+    public void makeDeposit_CoalescingEnabled_PostsThroughCoalescer() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, null);
+        PostingRequest posting = new PostingRequest("theodore.roosevelt@gmail.com", TransactionType.DEPOSIT, 50_00);
+        when(postingCoalescer.isEnabled()).thenReturn(true);
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com"))
+                .thenReturn(Optional.of(BankAccount.builder().accountId("theodore.roosevelt@gmail.com").build()));
+        when(postingCoalescer.post(posting)).thenReturn(updated);
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
+
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00);
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance().intValue()).isEqualTo(3550);
+        verify(postingCoalescer).post(posting);
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com", List.of(Pair.of(BankAccountFields.BALANCE, "3550.0")));
-        verify(dataFacade).saveTransaction(1L, BigDecimal.valueOf(50.0), TransactionType.DEPOSIT);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
-    @DisplayName("Test deposit to not-exists bank account. result=EntityNotFoundException")
-    public void makeDeposit_WithNotExistsBankAccount() {
-        when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
-        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50));
-        verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
+    @DisplayName("Test deposit to a striped account skips the posting coalescer.")
+    public void makeDeposit_CoalescingEnabledStripedAccount_PostsToSubBalances() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 8);
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, null);
+        when(postingCoalescer.isEnabled()).thenReturn(true);
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com"))
+                .thenReturn(Optional.of(BankAccount.builder().accountId("theodore.roosevelt@gmail.com").balanceStripes(8).build()));
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT)).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
+
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00);
+
+        assertTrue(result.isPresent());
+        assertThat(result.get().balance().intValue()).isEqualTo(3550);
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT);
+        verify(postingCoalescer, never()).post(any());
+    }
+
+    @Test
+    @DisplayName("Test a retried deposit with the same Idempotency-Key is answered from memory.")
+    public void makeDeposit_RetriedWithIdempotencyKey_AnsweredFromMemory() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, null);
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT, "retry-1")).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
+
+        Optional<BankAccountSummaryDto> first = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00, "retry-1");
+        Optional<BankAccountSummaryDto> retried = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00, "retry-1");
+
+        assertEquals(first, retried);
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT, "retry-1");
         verifyNoMoreInteractions(dataFacade);
+        verifyNoInteractions(postingCoalescer);
     }
 
     @Test
-    @DisplayName("Test deposit to inactive bank account. result=InactiveAccountException")
-    public void makeDeposit_WithInactiveAccount() {
-        BankAccount bankAccount = BankAccount.builder()
+    @DisplayName("Test a retried deposit whose key is only in the database is answered from the account.")
+    public void makeDeposit_KeyAlreadyStored_AnsweredFromTransaction() {
+        BankAccount account = BankAccount.builder()
+                .id(1L)
+                .accountId("theodore.roosevelt@gmail.com")
+                .balance(BigDecimal.valueOf(3550))
+                .minimumBalance(BigDecimal.valueOf(1500))
+                .active(true)
+                .build();
+        BankAccountSummaryDto accountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3550), BigDecimal.valueOf(1500), true, 1, null);
+        Transaction transaction = Transaction.builder()
+                .bankAccountId(1L)
+                .amount(new BigDecimal("50.00"))
+                .type(TransactionType.DEPOSIT)
+                .idempotencyKey("retry-1")
+                .build();
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT, "retry-1"))
+                .thenThrow(new DuplicateKeyException("transaction_idempotency_key_idx"));
+        when(dataFacade.findTransactionByIdempotencyKey("retry-1")).thenReturn(Optional.of(transaction));
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(account));
+        when(mapper.toSummaryDto(account)).thenReturn(accountDto);
+
+        Optional<BankAccountSummaryDto> result = service.makeDeposit("theodore.roosevelt@gmail.com", 50_00, "retry-1");
+
+        assertEquals(Optional.of(accountDto), result);
+    }
+
+    @Test
+    @DisplayName("Test an Idempotency-Key reused for a different amount. result=IdempotencyKeyReusedException")
+    public void makeWithdraw_IdempotencyKeyReusedForDifferentAmount() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(3450), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.WITHDRAW, "retry-1")).thenReturn(Optional.of(updated));
+        service.makeWithdraw("theodore.roosevelt@gmail.com", 50_00, "retry-1");
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 60_00, "retry-1"));
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.WITHDRAW, "retry-1");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test a retried withdrawal that was rejected with the same Idempotency-Key. result=the same rejection from memory")
+    public void makeWithdraw_RejectedThenRetriedWithIdempotencyKey_RejectedFromMemory() {
+        BankAccount account = BankAccount.builder()
                 .id(1L)
                 .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
                 .balance(BigDecimal.valueOf(3500))
                 .minimumBalance(BigDecimal.valueOf(1500))
-                .active(false)
+                .active(true)
                 .build();
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 2500_00L, TransactionType.WITHDRAW, "retry-1")).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(account));
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
-        assertThrows(InactiveAccountException.class, () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50));
+        InsufficientFundsException first = assertThrows(InsufficientFundsException.class,
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2500_00, "retry-1"));
+        InsufficientFundsException retried = assertThrows(InsufficientFundsException.class,
+                () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2500_00, "retry-1"));
+
+        assertNotSame(first, retried);
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 2500_00L, TransactionType.WITHDRAW, "retry-1");
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
-    @DisplayName("Test withdraw from a bank account.")
-    public void withdraw() {
-        BankAccount original = BankAccount.builder()
+    @DisplayName("Test a retried withdrawal whose rejection could not be looked up. result=the posting is tried again")
+    public void makeWithdraw_RejectionLookupFailedThenRetriedWithIdempotencyKey_TriedAgain() {
+        BankAccount account = BankAccount.builder()
                 .id(1L)
                 .accountId("theodore.roosevelt@gmail.com")
-                .firstName("Theodore")
-                .lastName("Roosevelt")
                 .balance(BigDecimal.valueOf(3500))
                 .minimumBalance(BigDecimal.valueOf(1500))
                 .active(true)
                 .build();
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 2500_00L, TransactionType.WITHDRAW, "retry-1")).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com"))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(Optional.of(account));
+
+        assertThrows(QueryTimeoutException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2500_00, "retry-1"));
+        assertThrows(InsufficientFundsException.class, () -> service.makeWithdraw("theodore.roosevelt@gmail.com", 2500_00, "retry-1"));
+
+        verify(dataFacade, times(2)).postTransaction("theodore.roosevelt@gmail.com", 2500_00L, TransactionType.WITHDRAW, "retry-1");
+    }
+
+    @Test
+    @DisplayName("Test deposit with a blank Idempotency-Key. result=InvalidIdempotencyKeyException")
+    public void makeDeposit_BlankIdempotencyKey() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50_00, " "));
+        verifyNoInteractions(dataFacade);
+    }
 
-        BankAccount updated = BankAccount.builder()
+    @Test
+    @DisplayName("Test deposit to not-exists bank account. result=EntityNotFoundException")
+    public void makeDeposit_WithNotExistsBankAccount() {
+        when(dataFacade.postTransaction("fake@gmail.com", 50_00L, TransactionType.DEPOSIT)).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class, () -> service.makeDeposit("fake@gmail.com", 50_00));
+        verify(dataFacade).postTransaction("fake@gmail.com", 50_00L, TransactionType.DEPOSIT);
+        verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test deposit to inactive bank account. result=InactiveAccountException")
+    public void makeDeposit_WithInactiveAccount() {
+        BankAccount bankAccount = BankAccount.builder()
                 .id(1L)
                 .accountId("theodore.roosevelt@gmail.com")
                 .firstName("Theodore")
                 .lastName("Roosevelt")
-                .balance(BigDecimal.valueOf(1501))
+                .balance(BigDecimal.valueOf(3500))
                 .minimumBalance(BigDecimal.valueOf(1500))
-                .active(true)
+                .active(false)
                 .build();
 
-        BankAccountDto updatedBankAccountDto = new BankAccountDto("theodore.roosevelt@gmail.com",
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT)).thenReturn(Optional.empty());
+        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
+        assertThrows(InactiveAccountException.class, () -> service.makeDeposit("theodore.roosevelt@gmail.com", 50_00));
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.DEPOSIT);
+        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
+        verifyNoMoreInteractions(dataFacade);
+    }
+
+    @Test
+    @DisplayName("Test withdraw from a bank account.")
+    public void withdraw() {
+        BankAccountSnapshot updated = new BankAccountSnapshot(1L, "theodore.roosevelt@gmail.com", "Theodore", "Roosevelt",
+                BigDecimal.valueOf(1501), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), 1, 0);
+
+        BankAccountSummaryDto updatedBankAccountDto = new BankAccountSummaryDto("theodore.roosevelt@gmail.com",
                 "Theodore", "Roosevelt",
-                BigDecimal.valueOf(1501), BigDecimal.valueOf(1500), true, List.of());
+                BigDecimal.valueOf(1501), BigDecimal.valueOf(1500), true, 1, LocalDateTime.now());
 
-        when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
-        when(dataFacade.updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, "1501.0")))).thenReturn(Optional.of(updated));
-        when(mapper.toDto(updated)).thenReturn(updatedBankAccountDto);
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 1999_00L, TransactionType.WITHDRAW)).thenReturn(Optional.of(updated));
+        when(mapper.toSummaryDto(updated)).thenReturn(updatedBankAccountDto);
 
-        Optional<BankAccountDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1999);
+        Optional<BankAccountSummaryDto> result = service.makeWithdraw("theodore.roosevelt@gmail.com", 1999_00);
 
         assertTrue(result.isPresent());
-        BankAccountDto bankAccountDto = result.get();
+        BankAccountSummaryDto bankAccountDto = result.get();
         assertThat(bankAccountDto.accountId()).isEqualTo("theodore.roosevelt@gmail.com");
         assertThat(bankAccountDto.firstName()).isEqualTo("Theodore");
         assertThat(bankAccountDto.lastName()).isEqualTo("Roosevelt");
@@ -364,18 +742,17 @@ public class BankAccountServiceTest {
         assertThat(bankAccountDto.minimumBalance().intValue()).isEqualTo(1500);
         assertThat(bankAccountDto.balance()).isGreaterThan(bankAccountDto.minimumBalance());
 
-        verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
-        verify(dataFacade).updateBankAccount("theodore.roosevelt@gmail.com",
-                List.of(Pair.of(BankAccountFields.BALANCE, "1501.0")));
-        verify(dataFacade).saveTransaction(1L, BigDecimal.valueOf(1999.0), TransactionType.WITHDRAW);
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 1999_00L, TransactionType.WITHDRAW);
         verifyNoMoreInteractions(dataFacade);
     }
 
     @Test
     @DisplayName("Test withdraw from not-exists bank account. result=EntityNotFoundException")
     public void makeWithdraw_WithNotExistsBankAccount() {
+        when(dataFacade.postTransaction("fake@gmail.com", 50_00L, TransactionType.WITHDRAW)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("fake@gmail.com")).thenReturn(Optional.empty());
-        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50));
+        assertThrows(EntityNotFoundException.class, () -> service.makeWithdraw("fake@gmail.com", 50_00));
+        verify(dataFacade).postTransaction("fake@gmail.com", 50_00L, TransactionType.WITHDRAW);
         verify(dataFacade).findBankAccountByAccountId("fake@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
@@ -393,9 +770,11 @@ public class BankAccountServiceTest {
                 .active(false)
                 .build();
 
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.WITHDRAW)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(bankAccount));
         assertThrows(InactiveAccountException.class, () ->
-                service.makeWithdraw("theodore.roosevelt@gmail.com", 50));
+                service.makeWithdraw("theodore.roosevelt@gmail.com", 50_00));
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 50_00L, TransactionType.WITHDRAW);
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
@@ -413,11 +792,22 @@ public class BankAccountServiceTest {
                 .active(true)
                 .build();
 
+        when(dataFacade.postTransaction("theodore.roosevelt@gmail.com", 2001_00L, TransactionType.WITHDRAW)).thenReturn(Optional.empty());
         when(dataFacade.findBankAccountByAccountId("theodore.roosevelt@gmail.com")).thenReturn(Optional.of(original));
         assertThrows(InsufficientFundsException.class, () ->
-                service.makeWithdraw("theodore.roosevelt@gmail.com", 2001));
+                service.makeWithdraw("theodore.roosevelt@gmail.com", 2001_00));
 
+        verify(dataFacade).postTransaction("theodore.roosevelt@gmail.com", 2001_00L, TransactionType.WITHDRAW);
         verify(dataFacade).findBankAccountByAccountId("theodore.roosevelt@gmail.com");
         verifyNoMoreInteractions(dataFacade);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test splitting a bank account balance into too many stripes. result=InvalidBalanceStripesException")
+    public void setBalanceStripes_OutOfRange() {
+        assertThrows(InvalidBalanceStripesException.class, () ->
+                service.setBalanceStripes("theodore.roosevelt@gmail.com", 65));
+
+        verifyNoInteractions(dataFacade);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ml.testsexamples.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.dto.AccountImportErrorDto;
+import com.ml.testsexamples.enums.ImportFormat;
+import com.ml.testsexamples.requests.BankAccountImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BankAccountImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void readCsv_ValidAndInvalidLines_ValidRowsCanonicalizedAndInvalidLinesReported() throws Exception {
+        String csv = """
+                Meir.Lustig@Gmail.com, Meir, Lustig, 5030, 1530
+
+                miki.cohen@gmail.com, Miki, Cohen, 10830.5, -1530
+                mikicohen, Miki, Cohen, 10830, -1530
+                dana.levi@gmail.com, Dana, Levi, 10.001, 0
+                dana.levi@gmail.com, Dana, 10, 0
+                dana.levi@gmail.com, , Levi, 10, 0
+                dana.levi@gmail.com, Dana, Levi, 100000000, 0
+                """;
+
+        List<BankAccountImportRow> rows = new ArrayList<>();
+        try (BankAccountImportReader reader = reader(csv, ImportFormat.CSV)) {
+            reader.forEachRemaining(rows::add);
+
+            assertEquals(List.of(
+                    new BankAccountImportRow("meir.lustig@gmail.com", "Meir", "Lustig", 5030_00L, 1530_00L),
+                    new BankAccountImportRow("miki.cohen@gmail.com", "Miki", "Cohen", 10830_50L, -1530_00L)), rows);
+            assertEquals(5, reader.rejected());
+            assertEquals(List.of(
+                    new AccountImportErrorDto(4, "Wrong format exception"),
+                    new AccountImportErrorDto(5, "Invalid amount"),
+                    new AccountImportErrorDto(6, "Expected accountId, firstName, lastName, balance, minimumBalance"),
+                    new AccountImportErrorDto(7, "First name and last name are required"),
+                    new AccountImportErrorDto(8, "Amount out of range")), reader.errors());
+        }
+    }
+
+    @Test
+    public void readNdjson_AccountDocuments_RowsInMinorUnits() throws Exception {
+        String ndjson = """
+                {"accountId":"meir.lustig@gmail.com","firstName":"Meir","lastName":"Lustig","balance":5030.25,"minimumBalance":1530,"active":true}
+                {"accountId":"miki.cohen@gmail.com","firstName":"Miki","lastName":"Cohen"}
+                {"accountId":
+                """;
+
+        try (BankAccountImportReader reader = reader(ndjson, ImportFormat.NDJSON)) {
+            assertTrue(reader.hasNext());
+            assertEquals(new BankAccountImportRow("meir.lustig@gmail.com", "Meir", "Lustig", 5030_25L, 1530_00L), reader.next());
+            assertFalse(reader.hasNext());
+            assertEquals(List.of(
+                    new AccountImportErrorDto(2, "Balance and minimum balance are required"),
+                    new AccountImportErrorDto(3, "Malformed account")), reader.errors());
+        }
+    }
+
+    @Test
+    public void readCsv_ManyInvalidLines_AllCountedAndFirstOnesReported() throws Exception {
+        String csv = "not an account\n".repeat(BankAccountImportReader.MAX_ERRORS + 50);
+
+        try (BankAccountImportReader reader = reader(csv, ImportFormat.CSV)) {
+            assertFalse(reader.hasNext());
+            assertEquals(BankAccountImportReader.MAX_ERRORS + 50, reader.rejected());
+            assertEquals(BankAccountImportReader.MAX_ERRORS, reader.errors().size());
+        }
+    }
+
+    private BankAccountImportReader reader(String input, ImportFormat format) {
+        return new BankAccountImportReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, objectMapper);
+    }
+}
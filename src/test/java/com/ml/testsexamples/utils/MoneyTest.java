@@ -0,0 +1,61 @@
+package com.ml.testsexamples.utils;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ml.testsexamples.requests.TransactionRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @CsvSource({"0, 0", "250, 25000", "250.5, 25050", "250.50, 25050", "250.500, 25050", "-0.01, -1", "+7.1, 710",
+            "92233720368547758.07, 9223372036854775807"})
+    public void parse_PlainDecimal_MinorUnits(String text, long expected) {
+        assertEquals(expected, Money.parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", ".", "1.005", "1e3", "12a", "1.2.3", "92233720368547758.08"})
+    public void parse_NotAnAmount_Throws(String text) {
+        assertThrows(RuntimeException.class, () -> Money.parse(text));
+    }
+
+    @Test
+    public void toBigDecimal_MinorUnits_ScaledByCurrency() {
+        assertEquals(new BigDecimal("1234567890.12"), Money.toBigDecimal(123456789012L));
+        assertEquals(25050, Money.toMinorUnits(new BigDecimal("250.5")));
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("0.001")));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "{\"accountId\":\"a@b.c\",\"amount\":500}|50000",
+            "{\"accountId\":\"a@b.c\",\"amount\":0.1}|10",
+            "{\"accountId\":\"a@b.c\",\"amount\":1234567.89}|123456789",
+            "{\"accountId\":\"a@b.c\",\"amount\":1.5e2}|15000",
+            "{\"accountId\":\"a@b.c\",\"amount\":\"12.30\"}|1230"})
+    public void deserialize_JsonAmount_ExactMinorUnits(String json, long expected) throws Exception {
+        assertEquals(expected, objectMapper.readValue(json, TransactionRequest.class).amount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"accountId\":\"a@b.c\",\"amount\":0.001}", "{\"accountId\":\"a@b.c\",\"amount\":\"abc\"}"})
+    public void deserialize_NotAnAmount_ThrowsJsonMappingException(String json) {
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue(json, TransactionRequest.class));
+    }
+
+    @Test
+    public void serialize_MinorUnits_WrittenInMajorUnits() throws Exception {
+        assertEquals("{\"accountId\":\"a@b.c\",\"amount\":250.50}",
+                objectMapper.writeValueAsString(new TransactionRequest("a@b.c", 250_50)));
+    }
+}
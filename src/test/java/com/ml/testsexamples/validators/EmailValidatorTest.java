@@ -0,0 +1,26 @@
+package com.ml.testsexamples.validators;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EmailValidatorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"theodore.roosevelt@gmail.com", "a@b", "a+b_c.d-e@x-y.z", "@gmail.com", "john@", "john",
+            "john@@gmail.com", "john@gmail@com", "john doe@gmail.com", "john@gmail.com ", "john@gmail.com\n",
+            "john@gmail_com", "jöhn@gmail.com", "", "@", "..@.."})
+    public void isValid_SameResultAsRegex(String email) {
+        assertEquals(!email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$"), EmailValidator.isValid(email));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"theodore.roosevelt@gmail.com, theodore.roosevelt@gmail.com",
+            "'  Theodore.Roosevelt@Gmail.COM ', theodore.roosevelt@gmail.com",
+            "JOHN@X.IO, john@x.io"})
+    public void canonicalize_TrimmedAndLowerCased(String email, String expected) {
+        assertEquals(expected, EmailValidator.canonicalize(email));
+    }
+}
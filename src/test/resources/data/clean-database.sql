@@ -1,25 +1,61 @@
 DEALLOCATE ALL;
+DROP TABLE IF EXISTS outbox_event;
+DROP TABLE IF EXISTS bank_account_balance_stripe;
 DROP TABLE IF EXISTS transaction;
 DROP TABLE IF EXISTS bank_account;
 
 CREATE TABLE IF NOT EXISTS bank_account
 (
-    id              SERIAL PRIMARY KEY,
-    account_id      VARCHAR(255) NOT NULL UNIQUE,
-    first_name      VARCHAR(255) NOT NULL,
-    last_name       VARCHAR(255) NOT NULL,
-    balance         NUMERIC(10, 2),
-    minimum_balance NUMERIC(10, 2),
-    active          BOOLEAN,
-    created_at      TIMESTAMP DEFAULT NOW(),
-    updated_at      TIMESTAMP DEFAULT NOW()
+    id                SERIAL PRIMARY KEY,
+    account_id        VARCHAR(255) NOT NULL UNIQUE,
+    first_name        VARCHAR(255) NOT NULL,
+    last_name         VARCHAR(255) NOT NULL,
+    balance           NUMERIC(10, 2),
+    minimum_balance   NUMERIC(10, 2),
+    active            BOOLEAN,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    last_activity_at  TIMESTAMP,
+    created_at        TIMESTAMP DEFAULT NOW(),
+    updated_at        TIMESTAMP DEFAULT NOW(),
+    version           BIGINT NOT NULL DEFAULT 0,
+    balance_stripes   INT    NOT NULL DEFAULT 0,
+    deleted_at        TIMESTAMP
 );
 
+CREATE INDEX IF NOT EXISTS bank_account_deleted_at_idx
+    ON bank_account (deleted_at) WHERE deleted_at IS NOT NULL;
+
 CREATE TABLE IF NOT EXISTS transaction
 (
     id              SERIAL PRIMARY KEY,
     bank_account_id INT REFERENCES bank_account (id),
     amount          NUMERIC(10, 2),
     type            VARCHAR(255) NOT NULL CHECK (type IN ('DEPOSIT', 'WITHDRAW')),
-    created_at      TIMESTAMP DEFAULT NOW()
-);
\ No newline at end of file
+    created_at      TIMESTAMP DEFAULT NOW(),
+    idempotency_key VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS transaction_bank_account_id_created_at_id_idx
+    ON transaction (bank_account_id, created_at, id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS transaction_idempotency_key_idx
+    ON transaction (idempotency_key);
+
+CREATE TABLE IF NOT EXISTS bank_account_balance_stripe
+(
+    bank_account_id   INT REFERENCES bank_account (id) ON DELETE CASCADE,
+    stripe            INT            NOT NULL,
+    balance           NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    transaction_count BIGINT         NOT NULL DEFAULT 0,
+    last_activity_at  TIMESTAMP,
+    PRIMARY KEY (bank_account_id, stripe)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id VARCHAR(255) NOT NULL,
+    type       VARCHAR(255) NOT NULL,
+    payload    TEXT         NOT NULL,
+    created_at TIMESTAMP    NOT NULL
+);